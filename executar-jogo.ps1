@@ -12,7 +12,7 @@ try {
     $javaVersion = & $javaCmd -version 2>&1
     Write-Host "Java encontrado!" -ForegroundColor Green
 } catch {
-    Write-Host "ERRO: Java não encontrado! Instale Java 17+" -ForegroundColor Red
+    Write-Host "ERRO: Java não encontrado! Instale Java 21+" -ForegroundColor Red
     exit 1
 }
 
@@ -0,0 +1,43 @@
+package com.arcane.tetris.bench;
+
+import com.arcane.tetris.ai.AiController;
+import com.arcane.tetris.engine.Piece;
+import com.arcane.tetris.engine.PieceType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark da decisão de jogada da IA num tabuleiro de meio de partida
+ * cached = false limpa o cache de avaliações a cada operação (custo real da decisão);
+ * cached = true mede a mesma decisão repetida, toda servida pelo cache
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AiBenchmark {
+    @Param({"T", "I", "O"})
+    public PieceType type;
+    
+    @Param({"false", "true"})
+    public boolean cached;
+    
+    private AiController ai;
+    private Piece piece;
+    
+    @Setup
+    public void setUp() {
+        ai = BenchmarkFixtures.ai(BenchmarkFixtures.midGameBoard());
+        piece = new Piece(type);
+    }
+    
+    @Benchmark
+    public AiController.Move decideBestMove() {
+        if (!cached) {
+            ai.getEvaluationCache().clear();
+        }
+        return ai.decideBestMove(piece);
+    }
+}
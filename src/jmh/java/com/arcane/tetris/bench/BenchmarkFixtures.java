@@ -0,0 +1,56 @@
+package com.arcane.tetris.bench;
+
+import com.arcane.tetris.ai.AiController;
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+import com.arcane.tetris.sim.AiInputSource;
+import com.arcane.tetris.engine.Player;
+
+/**
+ * Tabuleiros realistas para os benchmarks, gerados de forma determinística
+ */
+final class BenchmarkFixtures {
+    static final long SEED = 20240501L;
+    
+    private BenchmarkFixtures() {}
+    
+    /**
+     * Jogador no meio da partida: a IA joga algumas peças com pesos fracos
+     * para deixar buracos e irregularidade, como numa partida real
+     */
+    static Player midGamePlayer() {
+        Player player = new Player("bench", "Bench", SEED);
+        AiInputSource input = new AiInputSource(new double[] {0.1, 0.2, 0.1, -0.5}, false);
+        for (long tick = 0; tick < 40 && !player.getEngine().isGameOver(); tick++) {
+            input.onTick(player, null, tick);
+            player.update(1.0 / 60.0);
+        }
+        return player;
+    }
+    
+    /**
+     * Cópia do tabuleiro de midGamePlayer
+     */
+    static Board midGameBoard() {
+        return midGamePlayer().getEngine().getBoard().copy();
+    }
+    
+    /**
+     * Tabuleiro com duas linhas completas prontas para clearLines()
+     */
+    static Board boardWithFullLines() {
+        Board board = new Board();
+        for (int y = Board.HEIGHT - 2; y < Board.HEIGHT; y++) {
+            // I deitado ocupa a linha 1 da sua matriz, então y - 1 preenche a linha y
+            board.placePiece(PieceType.I, 0, 0, y - 1);
+            board.placePiece(PieceType.I, 0, 4, y - 1);
+            board.placePiece(PieceType.O, 0, 8, y);
+        }
+        board.placePiece(PieceType.T, 0, 3, Board.HEIGHT - 4);
+        return board;
+    }
+    
+    static AiController ai(Board board) {
+        return new AiController(board, 0.5, 0.7, 0.3, -1.0);
+    }
+}
@@ -0,0 +1,55 @@
+package com.arcane.tetris.bench;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks de colisão e limpeza de linhas do Board
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    private Board midGame;
+    private Board fullLines;
+    private Board scratch;
+    
+    @Setup
+    public void setUp() {
+        midGame = BenchmarkFixtures.midGameBoard();
+        fullLines = BenchmarkFixtures.boardWithFullLines();
+        scratch = new Board();
+    }
+    
+    /**
+     * Todas as posições de uma T num tabuleiro de meio de partida
+     */
+    @Benchmark
+    public int canPlacePiece() {
+        int fits = 0;
+        for (int rotation = 0; rotation < 4; rotation++) {
+            for (int x = -2; x < Board.WIDTH + 2; x++) {
+                for (int y = 0; y < Board.HEIGHT; y++) {
+                    if (midGame.canPlacePiece(PieceType.T, rotation, x, y)) {
+                        fits++;
+                    }
+                }
+            }
+        }
+        return fits;
+    }
+    
+    /**
+     * Restaura um tabuleiro com 2 linhas completas e as remove
+     */
+    @Benchmark
+    public int clearLines() {
+        scratch.copyFrom(fullLines);
+        return scratch.clearLines();
+    }
+}
@@ -0,0 +1,40 @@
+package com.arcane.tetris.bench;
+
+import com.arcane.tetris.engine.Player;
+import com.arcane.tetris.sim.AiInputSource;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark do loop de tick completo: entrada da IA + Player.update
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+    private static final double TICK = 1.0 / 60.0;
+    
+    private Player player;
+    private AiInputSource input;
+    private long tick;
+    
+    @Setup
+    public void setUp() {
+        player = new Player("bench", "Bench", BenchmarkFixtures.SEED);
+        input = new AiInputSource();
+        tick = 0;
+    }
+    
+    @Benchmark
+    public int tickLoop() {
+        input.onTick(player, null, tick++);
+        player.update(TICK);
+        if (player.getEngine().isGameOver()) {
+            player.reset();
+        }
+        return player.getEngine().getScore();
+    }
+}
@@ -0,0 +1,54 @@
+package com.arcane.tetris.bench;
+
+import com.arcane.tetris.ai.AiController;
+import com.arcane.tetris.engine.PieceType;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark da busca com lookahead sequencial e paralela (fork-join)
+ * threads = 0 é a busca sequencial; a razão entre as linhas dá o ganho do paralelismo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LookaheadBenchmark {
+    private static final PieceType[] PIECES = {PieceType.T, PieceType.S, PieceType.I, PieceType.L};
+    
+    @Param({"0", "1", "2", "4", "8"})
+    public int threads;
+    
+    @Param({"1"})
+    public int grain;
+    
+    private AiController ai;
+    private ForkJoinPool pool;
+    
+    @Setup
+    public void setUp() {
+        ai = BenchmarkFixtures.ai(BenchmarkFixtures.midGameBoard());
+        ai.configureLookahead(PIECES.length, AiController.DEFAULT_BEAM_WIDTH, 0); // sem limite de tempo
+        if (threads > 0) {
+            pool = new ForkJoinPool(threads);
+            ai.enableParallelSearch(pool, 2, grain);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+    
+    @Benchmark
+    public boolean search() {
+        // Limpa o cache para medir a busca, não só consultas ao cache
+        ai.getEvaluationCache().clear();
+        return ai.searchAhead(PIECES, PIECES.length);
+    }
+}
@@ -0,0 +1,60 @@
+package com.arcane.tetris.bench;
+
+import com.arcane.tetris.engine.Player;
+import com.arcane.tetris.net.BinaryCodec;
+import com.arcane.tetris.net.FrameReader;
+import com.arcane.tetris.net.NetMessage;
+import com.arcane.tetris.net.NetProtocol;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks de criação e (de)serialização de uma atualização de estado (JSON e binário)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NetProtocolBenchmark {
+    private Player player;
+    private NetMessage stateUpdate;
+    private String serialized;
+    private byte[] binaryFrame;
+    
+    @Setup
+    public void setUp() {
+        player = BenchmarkFixtures.midGamePlayer();
+        stateUpdate = NetProtocol.createStateUpdate(player.getId(), player.getEngine());
+        serialized = NetProtocol.serialize(stateUpdate);
+        binaryFrame = BinaryCodec.encode(stateUpdate);
+    }
+    
+    @Benchmark
+    public NetMessage createStateUpdate() {
+        return NetProtocol.createStateUpdate(player.getId(), player.getEngine());
+    }
+    
+    @Benchmark
+    public String serialize() {
+        return NetProtocol.serialize(stateUpdate);
+    }
+    
+    @Benchmark
+    public NetMessage deserialize() {
+        return NetProtocol.deserialize(serialized);
+    }
+    
+    @Benchmark
+    public byte[] encodeBinary() {
+        return BinaryCodec.encode(stateUpdate);
+    }
+    
+    @Benchmark
+    public NetMessage decodeBinary() throws IOException {
+        return new FrameReader(new ByteArrayInputStream(binaryFrame)).read();
+    }
+}
@@ -0,0 +1,30 @@
+package com.arcane.tetris.bench;
+
+import com.arcane.tetris.engine.Piece;
+import com.arcane.tetris.engine.PieceType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark de rotação de peças
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceBenchmark {
+    private Piece piece;
+    
+    @Setup
+    public void setUp() {
+        piece = new Piece(PieceType.T);
+    }
+    
+    @Benchmark
+    public boolean rotate() {
+        piece.rotate();
+        return piece.isOccupied(1, 1);
+    }
+}
@@ -2,10 +2,9 @@ package com.arcane.tetris.ai;
 
 import com.arcane.tetris.engine.*;
 import com.arcane.tetris.util.Config;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Controlador de IA heurística
@@ -18,11 +17,105 @@ public class AiController {
     private double weightHoles;
     private double weightBumpiness;
     private double weightLines;
+    private final MoveGenerator moveGenerator;
+    private final MoveBuffer moveBuffer;
+    
+    // Cache de avaliações por hash do board (boards iguais vindos de sequências diferentes)
+    public static final int DEFAULT_CACHE_SIZE = 16384;
+    private final EvaluationCache evaluationCache;
+    
+    // Lookahead: peça atual + próximas, com beam e orçamento de tempo
+    public static final int DEFAULT_LOOKAHEAD_DEPTH = 2;
+    public static final int DEFAULT_BEAM_WIDTH = 6;
+    public static final long DEFAULT_TIME_BUDGET_NANOS = 4_000_000L; // 4 ms
+    private LookaheadSearch lookahead;
+    public static final int DEFAULT_PARALLEL_GRAIN = 1;
+    private ParallelLookaheadSearch parallelLookahead; // null = busca sequencial
+    private PieceType[] lookaheadPieces;
+    private long timeBudgetNanos;
+    private int lookaheadDepth;
+    private int beamWidth;
     
     public AiController(Board board) {
         this.board = board;
         this.config = Config.getInstance();
+        this.evaluationCache = new EvaluationCache(loadCacheSize());
+        this.moveGenerator = new MoveGenerator(this::evaluateCached);
+        this.moveBuffer = new MoveBuffer();
         loadWeights();
+        configureLookahead(DEFAULT_LOOKAHEAD_DEPTH, DEFAULT_BEAM_WIDTH, DEFAULT_TIME_BUDGET_NANOS);
+    }
+    
+    /**
+     * Cria uma IA com pesos explícitos, sem ler a configuração (usado na simulação headless)
+     */
+    public AiController(Board board, double weightHeight, double weightHoles,
+                        double weightBumpiness, double weightLines) {
+        this(board, weightHeight, weightHoles, weightBumpiness, weightLines, DEFAULT_CACHE_SIZE);
+    }
+    
+    /**
+     * Como o construtor de pesos explícitos, escolhendo o tamanho do cache de avaliações
+     * @param cacheSize número máximo de avaliações guardadas
+     */
+    public AiController(Board board, double weightHeight, double weightHoles,
+                        double weightBumpiness, double weightLines, int cacheSize) {
+        this.board = board;
+        this.config = null;
+        this.evaluationCache = new EvaluationCache(cacheSize);
+        this.moveGenerator = new MoveGenerator(this::evaluateCached);
+        this.moveBuffer = new MoveBuffer();
+        this.weightHeight = weightHeight;
+        this.weightHoles = weightHoles;
+        this.weightBumpiness = weightBumpiness;
+        this.weightLines = weightLines;
+        configureLookahead(DEFAULT_LOOKAHEAD_DEPTH, DEFAULT_BEAM_WIDTH, DEFAULT_TIME_BUDGET_NANOS);
+    }
+    
+    /**
+     * Configura a busca com lookahead
+     * @param depth número máximo de peças consideradas (atual + próximas)
+     * @param beamWidth candidatos expandidos por nível
+     * @param timeBudgetNanos tempo máximo por decisão (0 = sem limite)
+     */
+    public void configureLookahead(int depth, int beamWidth, long timeBudgetNanos) {
+        this.lookahead = new LookaheadSearch(this::evaluateCached, depth, beamWidth);
+        this.lookaheadPieces = new PieceType[depth];
+        this.timeBudgetNanos = timeBudgetNanos;
+        this.lookaheadDepth = depth;
+        this.beamWidth = beamWidth;
+        this.parallelLookahead = null;
+    }
+    
+    /**
+     * Ativa a avaliação paralela do lookahead num ForkJoinPool
+     * (chamar depois de configureLookahead; null desativa)
+     * @param threshold mínimo de candidatos no primeiro nível para usar o pool
+     */
+    public void enableParallelSearch(ForkJoinPool pool, int threshold) {
+        enableParallelSearch(pool, threshold, DEFAULT_PARALLEL_GRAIN);
+    }
+    
+    /**
+     * Como enableParallelSearch(pool, threshold), escolhendo o grão
+     * Os workers compartilham o cache de avaliações
+     * @param grain subárvores avaliadas em sequência por tarefa (maior = menos tarefas)
+     */
+    public void enableParallelSearch(ForkJoinPool pool, int threshold, int grain) {
+        if (pool == null) {
+            parallelLookahead = null;
+            return;
+        }
+        parallelLookahead = new ParallelLookaheadSearch(pool, this::evaluateCached,
+                                                        lookaheadDepth, beamWidth, threshold, grain);
+    }
+    
+    /**
+     * Tamanho do cache de avaliações ("aiCacheSize" na configuração)
+     */
+    private int loadCacheSize() {
+        Object size = config.get("aiCacheSize", DEFAULT_CACHE_SIZE);
+        return size instanceof Number ? ((Number) size).intValue() : DEFAULT_CACHE_SIZE;
     }
     
     /**
@@ -62,72 +155,88 @@ public class AiController {
     
     /**
      * Decide a melhor jogada para uma peça
+     * Move.rotation é o número de rotações horárias a partir da rotação atual da peça
      */
     public Move decideBestMove(Piece piece) {
-        List<Move> possibleMoves = generatePossibleMoves(piece);
-        
-        Move best = null;
-        double bestScore = Double.MAX_VALUE;
-        
-        for (Move move : possibleMoves) {
-            if (move.score < bestScore) {
-                bestScore = move.score;
-                best = move;
-            }
+        int best = findBestMove(piece.getType(), moveBuffer);
+        if (best < 0) {
+            return new Move(Board.WIDTH / 2, 0, 0);
         }
-        
-        return best != null ? best : new Move(Board.WIDTH / 2, 0, 0);
+        int turns = (moveBuffer.rotation[best] - piece.getRotation() + RotationTable.ROTATIONS)
+                    % RotationTable.ROTATIONS;
+        return new Move(moveBuffer.x[best], turns, moveBuffer.score[best]);
     }
     
     /**
-     * Gera todas as jogadas possíveis para uma peça
+     * Decide a melhor jogada para a peça atual olhando também a próxima (preview)
+     * Move.rotation é o número de rotações horárias a partir da rotação atual da peça
      */
-    private List<Move> generatePossibleMoves(Piece piece) {
-        List<Move> moves = new ArrayList<>();
-        
-        // Testa todas as rotações
-        for (int rotation = 0; rotation < 4; rotation++) {
-            Piece testPiece = piece.copy();
-            for (int r = 0; r < rotation; r++) {
-                testPiece.rotate();
-            }
-            
-            // Testa todas as posições horizontais
-            for (int x = -2; x < Board.WIDTH + 2; x++) {
-                // Simula queda da peça
-                int y = findDropY(testPiece, x);
-                
-                if (y >= 0) {
-                    // Cria um board temporário para avaliar
-                    Board tempBoard = createTempBoard();
-                    tempBoard.placePiece(testPiece, x, y);
-                    
-                    // Avalia a jogada
-                    double score = evaluatePosition(tempBoard);
-                    moves.add(new Move(x, rotation, score));
-                }
-            }
+    public Move decideBestMove(Piece current, Piece next) {
+        lookaheadPieces[0] = current.getType();
+        int count = 1;
+        if (next != null && lookaheadPieces.length > 1) {
+            lookaheadPieces[count++] = next.getType();
         }
         
-        return moves;
+        if (!searchAhead(lookaheadPieces, count)) {
+            return new Move(Board.WIDTH / 2, 0, 0);
+        }
+        int bestRotation = parallelLookahead != null
+            ? parallelLookahead.getBestRotation() : lookahead.getBestRotation();
+        int turns = (bestRotation - current.getRotation() + RotationTable.ROTATIONS)
+                    % RotationTable.ROTATIONS;
+        return parallelLookahead != null
+            ? new Move(parallelLookahead.getBestX(), turns, parallelLookahead.getBestScore())
+            : new Move(lookahead.getBestX(), turns, lookahead.getBestScore());
     }
     
     /**
-     * Encontra a posição Y onde a peça cairia
+     * Busca com lookahead sobre uma sequência conhecida de peças
+     * O resultado fica em getLookahead() ou getParallelLookahead(), se ativada (rotação absoluta)
      */
-    private int findDropY(Piece piece, int x) {
-        int y = 0;
-        while (board.canPlacePiece(piece, x, y + 1)) {
-            y++;
+    public boolean searchAhead(PieceType[] pieces, int count) {
+        if (parallelLookahead != null) {
+            return parallelLookahead.search(board, pieces, count, timeBudgetNanos);
         }
-        return board.canPlacePiece(piece, x, y) ? y : -1;
+        return lookahead.search(board, pieces, count, timeBudgetNanos);
+    }
+    
+    public LookaheadSearch getLookahead() {
+        return lookahead;
+    }
+    
+    public ParallelLookaheadSearch getParallelLookahead() {
+        return parallelLookahead;
+    }
+    
+    /**
+     * Cache de avaliações (contadores de acerto e despejo para dimensionamento)
+     */
+    public EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+    
+    /**
+     * Gera as jogadas de um tipo de peça no buffer do chamador e retorna o índice da melhor
+     * (-1 se nenhuma cabe). Não aloca: as rotações no buffer são absolutas
+     */
+    public int findBestMove(PieceType type, MoveBuffer out) {
+        moveGenerator.generate(board, type, out);
+        return out.bestIndex();
     }
     
     /**
-     * Cria uma cópia temporária do board para avaliação
+     * Avalia uma posição consultando antes o cache
+     * As linhas eliminadas entram na chave porque fazem parte da pontuação mas não do hash
      */
-    private Board createTempBoard() {
-        return board.copy();
+    private double evaluateCached(Board tempBoard) {
+        long key = tempBoard.getHash() ^ (tempBoard.getLinesCleared() * 0x9E3779B97F4A7C15L);
+        double score = evaluationCache.get(key);
+        if (Double.isNaN(score)) {
+            score = evaluatePosition(tempBoard);
+            evaluationCache.put(key, score);
+        }
+        return score;
     }
     
     /**
@@ -0,0 +1,118 @@
+package com.arcane.tetris.ai;
+
+import java.util.Arrays;
+
+/**
+ * Cache limitado de avaliações de board (tabela de transposição)
+ * Associativo em 2 vias: cada chave cai num conjunto de 2 entradas e, quando o conjunto
+ * está cheio, a entrada usada há mais tempo é substituída (LRU por conjunto).
+ * Pode ser compartilhado entre os workers da busca paralela sem locks: cada entrada guarda
+ * chave XOR valor, então um par misturado por escritas concorrentes não confere e vira miss.
+ * Sob concorrência o LRU e os contadores são aproximados
+ */
+public final class EvaluationCache {
+    private static final int WAYS = 2;
+    
+    private final long[] checks;    // chave XOR bits do valor
+    private final long[] values;    // Double.doubleToRawLongBits
+    private final long[] lastUsed;  // 0 = entrada vazia
+    private final int setMask;
+    private long clock;
+    
+    // Contadores para dimensionar o cache
+    private long hits;
+    private long misses;
+    private long evictions;
+    
+    /**
+     * @param capacity número máximo de entradas (arredondado para potência de 2, mínimo 2)
+     */
+    public EvaluationCache(int capacity) {
+        int sets = Integer.highestOneBit(Math.max(WAYS, capacity) / WAYS);
+        this.checks = new long[sets * WAYS];
+        this.values = new long[sets * WAYS];
+        this.lastUsed = new long[sets * WAYS];
+        this.setMask = sets - 1;
+    }
+    
+    private int setIndex(long key) {
+        long mixed = key ^ (key >>> 32);
+        return ((int) mixed & setMask) * WAYS;
+    }
+    
+    /**
+     * Procura uma avaliação; retorna NaN se não estiver no cache
+     */
+    public double get(long key) {
+        int base = setIndex(key);
+        for (int i = base; i < base + WAYS; i++) {
+            long bits = values[i];
+            if (lastUsed[i] != 0 && (checks[i] ^ bits) == key) {
+                lastUsed[i] = ++clock;
+                hits++;
+                return Double.longBitsToDouble(bits);
+            }
+        }
+        misses++;
+        return Double.NaN;
+    }
+    
+    /**
+     * Guarda uma avaliação, substituindo a entrada menos recente do conjunto se necessário
+     */
+    public void put(long key, double value) {
+        int base = setIndex(key);
+        int victim = base;
+        for (int i = base; i < base + WAYS; i++) {
+            if (lastUsed[i] == 0 || (checks[i] ^ values[i]) == key) {
+                victim = i;
+                break;
+            }
+            if (lastUsed[i] < lastUsed[victim]) {
+                victim = i;
+            }
+        }
+        if (lastUsed[victim] != 0 && (checks[victim] ^ values[victim]) != key) {
+            evictions++;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        values[victim] = bits;
+        checks[victim] = key ^ bits;
+        lastUsed[victim] = ++clock;
+    }
+    
+    /**
+     * Esvazia o cache e zera os contadores
+     */
+    public void clear() {
+        Arrays.fill(lastUsed, 0L);
+        clock = 0;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+    
+    public long getHits() {
+        return hits;
+    }
+    
+    public long getMisses() {
+        return misses;
+    }
+    
+    public long getEvictions() {
+        return evictions;
+    }
+    
+    /**
+     * Fração de consultas atendidas pelo cache (0 se nenhuma consulta)
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+    
+    public int getCapacity() {
+        return values.length;
+    }
+}
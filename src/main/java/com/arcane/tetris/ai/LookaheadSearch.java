@@ -0,0 +1,198 @@
+package com.arcane.tetris.ai;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+
+/**
+ * Busca com lookahead de várias peças (atual + próximas conhecidas)
+ * Em cada nível só os melhores candidatos (beam) são expandidos, e a busca respeita
+ * um orçamento de tempo: ao estourar, a escolha fica entre os candidatos cuja subárvore
+ * terminou (notas de mesma profundidade); se nenhum terminou, vale a melhor nota estática.
+ * Todos os boards e buffers são pré-alocados, então uma decisão não aloca memória
+ */
+public final class LookaheadSearch {
+    /** Penalidade para jogadas que encerram o jogo */
+    private static final double GAME_OVER_SCORE = Double.MAX_VALUE / 4;
+    
+    private final int maxDepth;
+    private final int beamWidth;
+    private final MoveGenerator generator;
+    private final MoveGenerator.Evaluator evaluator;
+    private final Board[] boards;      // boards[d] = tabuleiro antes da peça d
+    private final MoveBuffer[] buffers;
+    private final int[][] beams;       // índices dos melhores candidatos por nível
+    
+    private PieceType[] pieces;
+    private int depth;
+    private long deadline;
+    private boolean timedOut;
+    
+    // Resultado da última busca
+    private int bestX;
+    private int bestRotation;
+    private int bestDropY;
+    private double bestScore;
+    
+    public LookaheadSearch(MoveGenerator.Evaluator evaluator, int maxDepth, int beamWidth) {
+        this.maxDepth = maxDepth;
+        this.beamWidth = beamWidth;
+        this.evaluator = evaluator;
+        this.generator = new MoveGenerator(this::evaluateLeaf, true);
+        this.boards = new Board[maxDepth];
+        this.buffers = new MoveBuffer[maxDepth];
+        this.beams = new int[maxDepth][beamWidth];
+        for (int d = 0; d < maxDepth; d++) {
+            boards[d] = new Board();
+            buffers[d] = new MoveBuffer();
+        }
+    }
+    
+    private double evaluateLeaf(Board board) {
+        return board.isGameOver() ? GAME_OVER_SCORE : evaluator.evaluate(board);
+    }
+    
+    /**
+     * Procura a melhor jogada para pieces[0] considerando as peças seguintes
+     * @param count quantas peças de pieces são conhecidas (a profundidade é limitada por maxDepth)
+     * @param timeBudgetNanos tempo máximo da busca (0 = sem limite)
+     * @return true se encontrou alguma jogada válida
+     */
+    public boolean search(Board board, PieceType[] pieces, int count, long timeBudgetNanos) {
+        this.pieces = pieces;
+        this.depth = Math.min(count, maxDepth);
+        this.deadline = timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : Long.MAX_VALUE;
+        this.timedOut = false;
+        this.bestScore = Double.MAX_VALUE;
+        
+        if (depth == 0) {
+            return false;
+        }
+        boards[0].copyFrom(board);
+        searchLevel(0);
+        return bestScore < Double.MAX_VALUE;
+    }
+    
+    /**
+     * Avalia o nível d e retorna a melhor nota alcançável a partir de boards[d]
+     */
+    private double searchLevel(int d) {
+        MoveBuffer moves = buffers[d];
+        generator.generate(boards[d], pieces[d], moves);
+        int size = moves.size();
+        if (size == 0) {
+            return GAME_OVER_SCORE;
+        }
+        
+        // Último nível: a nota estática já é a nota final
+        if (d == depth - 1) {
+            int best = moves.bestIndex();
+            if (d == 0) {
+                recordBest(moves, best, moves.score[best]);
+            }
+            return moves.score[best];
+        }
+        
+        int beamSize = selectBeam(moves, beams[d]);
+        double levelBest = Double.MAX_VALUE;
+        int levelBestIndex = -1;
+        for (int i = 0; i < beamSize; i++) {
+            int index = beams[d][i];
+            double value = moves.score[index];
+            
+            if (value < GAME_OVER_SCORE) {
+                if (timedOut || System.nanoTime() > deadline) {
+                    timedOut = true;
+                    break;
+                }
+                Board next = boards[d + 1];
+                next.copyFrom(boards[d]);
+                next.placePiece(pieces[d], moves.rotation[index], moves.x[index], moves.dropY[index]);
+                next.clearLines();
+                value = searchLevel(d + 1);
+                if (timedOut) {
+                    break; // Subárvore incompleta: a nota não é comparável com as outras
+                }
+            }
+            
+            if (value < levelBest) {
+                levelBest = value;
+                levelBestIndex = index;
+            }
+        }
+        
+        // Sem nenhuma subárvore completa (ou só game over), a nota estática é o melhor palpite
+        if (levelBestIndex < 0 || (timedOut && levelBest >= GAME_OVER_SCORE)) {
+            levelBestIndex = moves.bestIndex();
+            levelBest = moves.score[levelBestIndex];
+        }
+        if (d == 0) {
+            recordBest(moves, levelBestIndex, levelBest);
+        }
+        return levelBest;
+    }
+    
+    /**
+     * Seleciona os índices das beamWidth jogadas com menor nota (seleção parcial, sem ordenar tudo)
+     */
+    static int selectBeam(MoveBuffer moves, int[] beam) {
+        int beamSize = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            double score = moves.score[i];
+            if (beamSize < beam.length) {
+                beam[beamSize++] = i;
+            } else if (score < moves.score[beam[beamSize - 1]]) {
+                beam[beamSize - 1] = i;
+            } else {
+                continue;
+            }
+            // Mantém o beam ordenado (insertion sort do último elemento)
+            for (int j = beamSize - 1; j > 0 && moves.score[beam[j]] < moves.score[beam[j - 1]]; j--) {
+                int tmp = beam[j];
+                beam[j] = beam[j - 1];
+                beam[j - 1] = tmp;
+            }
+        }
+        return beamSize;
+    }
+    
+    private void recordBest(MoveBuffer moves, int index, double value) {
+        bestX = moves.x[index];
+        bestRotation = moves.rotation[index];
+        bestDropY = moves.dropY[index];
+        bestScore = value;
+    }
+    
+    public int getBestX() {
+        return bestX;
+    }
+    
+    /**
+     * Rotação absoluta (índice na RotationTable)
+     */
+    public int getBestRotation() {
+        return bestRotation;
+    }
+    
+    public int getBestDropY() {
+        return bestDropY;
+    }
+    
+    public double getBestScore() {
+        return bestScore;
+    }
+    
+    /**
+     * Se a última busca parou por estourar o orçamento de tempo
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+    
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    public int getBeamWidth() {
+        return beamWidth;
+    }
+}
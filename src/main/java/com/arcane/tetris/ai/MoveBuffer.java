@@ -0,0 +1,73 @@
+package com.arcane.tetris.ai;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.RotationTable;
+
+/**
+ * Buffer reutilizável de jogadas em arrays primitivos
+ * Evita criar um objeto Move por candidato: o chamador aloca uma vez e reaproveita
+ */
+public final class MoveBuffer {
+    /** Máximo de jogadas para uma peça: 4 rotações x colunas de -2 a WIDTH + 1 */
+    public static final int MAX_MOVES = RotationTable.ROTATIONS * (Board.WIDTH + 4);
+    
+    public final int[] x;
+    public final int[] rotation; // rotação absoluta (índice na RotationTable)
+    public final int[] dropY;
+    public final double[] score;
+    private int size;
+    
+    public MoveBuffer() {
+        this(MAX_MOVES);
+    }
+    
+    public MoveBuffer(int capacity) {
+        this.x = new int[capacity];
+        this.rotation = new int[capacity];
+        this.dropY = new int[capacity];
+        this.score = new double[capacity];
+        this.size = 0;
+    }
+    
+    /**
+     * Esvazia o buffer (não libera memória)
+     */
+    public void clear() {
+        size = 0;
+    }
+    
+    /**
+     * Adiciona uma jogada e retorna seu índice
+     */
+    public int add(int moveX, int moveRotation, int moveDropY, double moveScore) {
+        int i = size++;
+        x[i] = moveX;
+        rotation[i] = moveRotation;
+        dropY[i] = moveDropY;
+        score[i] = moveScore;
+        return i;
+    }
+    
+    /**
+     * Índice da jogada com menor pontuação (melhor), ou -1 se vazio
+     */
+    public int bestIndex() {
+        int best = -1;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (score[i] < bestScore) {
+                bestScore = score[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int capacity() {
+        return x.length;
+    }
+}
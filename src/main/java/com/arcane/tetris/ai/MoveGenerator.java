@@ -0,0 +1,78 @@
+package com.arcane.tetris.ai;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+import com.arcane.tetris.engine.RotationTable;
+
+/**
+ * Gerador de jogadas sem alocação
+ * Enumera as posições finais de uma peça num MoveBuffer fornecido pelo chamador
+ * e avalia cada uma num único board de rascunho (coloca, avalia, desfaz)
+ */
+public final class MoveGenerator {
+    private static final int MIN_X = -2;
+    private static final int MAX_X = Board.WIDTH + 2; // exclusivo
+    
+    /**
+     * Função de avaliação de um board (menor = melhor)
+     */
+    @FunctionalInterface
+    public interface Evaluator {
+        double evaluate(Board board);
+    }
+    
+    private final Board scratch;
+    private final Evaluator evaluator;
+    private final boolean clearLines;
+    
+    public MoveGenerator(Evaluator evaluator) {
+        this(evaluator, false);
+    }
+    
+    /**
+     * @param clearLines se as linhas completas devem ser removidas antes de avaliar
+     *                   (necessário quando a jogada é seguida por outras, como na busca com lookahead)
+     */
+    public MoveGenerator(Evaluator evaluator, boolean clearLines) {
+        this.scratch = new Board();
+        this.evaluator = evaluator;
+        this.clearLines = clearLines;
+    }
+    
+    /**
+     * Gera todas as jogadas de uma peça sobre o board e retorna quantas foram geradas
+     * Rotações simétricas (O, I, S, Z) são enumeradas uma única vez
+     */
+    public int generate(Board board, PieceType type, MoveBuffer out) {
+        out.clear();
+        scratch.copyFrom(board);
+        
+        for (int r = 0; r < RotationTable.distinctRotationCount(type); r++) {
+            int rotation = RotationTable.distinctRotation(type, r);
+            for (int x = MIN_X; x < MAX_X; x++) {
+                int y = findDropY(board, type, rotation, x);
+                if (y >= 0) {
+                    scratch.placePiece(type, rotation, x, y);
+                    if (clearLines) {
+                        scratch.clearLines();
+                    }
+                    double score = evaluator.evaluate(scratch);
+                    scratch.copyFrom(board); // Desfaz a jogada
+                    out.add(x, rotation, y, score);
+                }
+            }
+        }
+        return out.size();
+    }
+    
+    /**
+     * Encontra a posição Y onde a peça cairia (-1 se não cabe nem no topo)
+     */
+    public static int findDropY(Board board, PieceType type, int rotation, int x) {
+        int y = 0;
+        while (board.canPlacePiece(type, rotation, x, y + 1)) {
+            y++;
+        }
+        return board.canPlacePiece(type, rotation, x, y) ? y : -1;
+    }
+}
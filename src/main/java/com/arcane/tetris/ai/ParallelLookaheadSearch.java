@@ -0,0 +1,331 @@
+package com.arcane.tetris.ai;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Versão paralela da LookaheadSearch usando fork-join
+ * O trabalho é dividido em duas fases para não limitar o paralelismo ao beam da raiz:
+ * 1. cada candidato da raiz gera as jogadas da segunda peça e escolhe o seu beam;
+ * 2. cada par (candidato da raiz, candidato do segundo nível) busca o restante da árvore.
+ * Com beam 6 e profundidade 3 são até 36 subárvores independentes. Os workers têm board e
+ * busca próprios e compartilham o avaliador (e o EvaluationCache por trás dele).
+ * Sem orçamento de tempo o resultado é idêntico ao da LookaheadSearch; com orçamento, só
+ * candidatos da raiz com todas as subárvores completas são comparados
+ */
+public final class ParallelLookaheadSearch {
+    private static final double GAME_OVER_SCORE = Double.MAX_VALUE / 4;
+    
+    private final ForkJoinPool pool;
+    private final MoveGenerator.Evaluator evaluator;
+    private final int maxDepth;
+    private final int beamWidth;
+    private final int threshold;     // mínimo de candidatos na raiz para paralelizar
+    private final int grain;         // subárvores por tarefa folha
+    private final LookaheadSearch sequential;
+    private final MoveGenerator rootGenerator;
+    private final MoveBuffer rootMoves;
+    private final int[] rootBeam;
+    private final ThreadLocal<WorkerScratch> scratch;
+    
+    // Fase 1: por candidato da raiz (índice no beam)
+    private final Board[] rootBoards;
+    private final MoveBuffer[] childMoves;
+    private final int[][] childBeams;
+    private final int[] childBeamSizes;
+    private final double[] rootValues;
+    private final boolean[] rootComplete;
+    
+    // Fase 2: por par (raiz, filho)
+    private final int[] pairRoot;
+    private final int[] pairChild;
+    private final double[] pairValues;
+    private final boolean[] pairComplete;
+    
+    // Estado da busca atual (lido pelas tarefas)
+    private final Board root;
+    private PieceType[] pieces;
+    private int depth;
+    private long deadline;
+    
+    // Resultado da última busca
+    private int bestX;
+    private int bestRotation;
+    private int bestDropY;
+    private double bestScore;
+    private volatile boolean timedOut;
+    
+    /**
+     * Gerador, board e busca de um worker, reaproveitados entre decisões
+     */
+    private final class WorkerScratch {
+        final MoveGenerator generator = new MoveGenerator(ParallelLookaheadSearch.this::evaluateLeaf, true);
+        final Board board = new Board();
+        final LookaheadSearch search = new LookaheadSearch(evaluator, Math.max(1, maxDepth - 2), beamWidth);
+        final PieceType[] pieces = new PieceType[Math.max(1, maxDepth - 2)];
+    }
+    
+    /**
+     * @param evaluator avaliação das posições; é chamada de várias threads ao mesmo tempo
+     * @param threshold número mínimo de candidatos na raiz para usar o pool
+     * @param grain subárvores avaliadas sequencialmente por tarefa
+     */
+    public ParallelLookaheadSearch(ForkJoinPool pool, MoveGenerator.Evaluator evaluator,
+                                   int maxDepth, int beamWidth, int threshold, int grain) {
+        this.pool = pool;
+        this.evaluator = evaluator;
+        this.maxDepth = maxDepth;
+        this.beamWidth = beamWidth;
+        this.threshold = threshold;
+        this.grain = Math.max(1, grain);
+        this.sequential = new LookaheadSearch(evaluator, maxDepth, beamWidth);
+        this.rootGenerator = new MoveGenerator(this::evaluateLeaf, true);
+        this.rootMoves = new MoveBuffer();
+        this.rootBeam = new int[beamWidth];
+        this.scratch = ThreadLocal.withInitial(WorkerScratch::new);
+        this.root = new Board();
+        
+        this.rootBoards = new Board[beamWidth];
+        this.childMoves = new MoveBuffer[beamWidth];
+        this.childBeams = new int[beamWidth][beamWidth];
+        this.childBeamSizes = new int[beamWidth];
+        this.rootValues = new double[beamWidth];
+        this.rootComplete = new boolean[beamWidth];
+        for (int i = 0; i < beamWidth; i++) {
+            rootBoards[i] = new Board();
+            childMoves[i] = new MoveBuffer();
+        }
+        int pairs = beamWidth * beamWidth;
+        this.pairRoot = new int[pairs];
+        this.pairChild = new int[pairs];
+        this.pairValues = new double[pairs];
+        this.pairComplete = new boolean[pairs];
+    }
+    
+    private double evaluateLeaf(Board board) {
+        return board.isGameOver() ? GAME_OVER_SCORE : evaluator.evaluate(board);
+    }
+    
+    /**
+     * Mesma semântica de LookaheadSearch.search
+     */
+    public boolean search(Board board, PieceType[] pieces, int count, long timeBudgetNanos) {
+        int searchDepth = Math.min(count, maxDepth);
+        if (searchDepth < 2 || beamWidth < threshold) {
+            return copyResult(sequential.search(board, pieces, count, timeBudgetNanos));
+        }
+        
+        this.pieces = pieces;
+        this.depth = searchDepth;
+        this.deadline = timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : Long.MAX_VALUE;
+        this.timedOut = false;
+        root.copyFrom(board);
+        
+        if (rootGenerator.generate(root, pieces[0], rootMoves) == 0) {
+            bestScore = Double.MAX_VALUE;
+            return false;
+        }
+        int beamSize = LookaheadSearch.selectBeam(rootMoves, rootBeam);
+        if (beamSize < threshold) {
+            return copyResult(sequential.search(board, pieces, count, timeBudgetNanos));
+        }
+        
+        // Fase 1: segundo nível de cada candidato da raiz
+        pool.invoke(new RangeTask(0, beamSize, false));
+        
+        // Fase 2: uma subárvore por par (raiz, filho)
+        if (depth > 2) {
+            int pairs = 0;
+            for (int i = 0; i < beamSize; i++) {
+                if (!rootComplete[i]) {
+                    for (int j = 0; j < childBeamSizes[i]; j++) {
+                        pairRoot[pairs] = i;
+                        pairChild[pairs] = j;
+                        pairs++;
+                    }
+                }
+            }
+            pool.invoke(new RangeTask(0, pairs, true));
+            reducePairs(beamSize);
+        }
+        
+        // Só candidatos com a árvore completa são comparáveis entre si
+        bestScore = Double.MAX_VALUE;
+        int bestIndex = -1;
+        for (int i = 0; i < beamSize; i++) {
+            if (rootComplete[i] && rootValues[i] < bestScore) {
+                bestScore = rootValues[i];
+                bestIndex = rootBeam[i];
+            }
+        }
+        if (bestIndex < 0 || (timedOut && bestScore >= GAME_OVER_SCORE)) {
+            bestIndex = rootMoves.bestIndex();
+            bestScore = rootMoves.score[bestIndex];
+        }
+        bestX = rootMoves.x[bestIndex];
+        bestRotation = rootMoves.rotation[bestIndex];
+        bestDropY = rootMoves.dropY[bestIndex];
+        return true;
+    }
+    
+    /**
+     * Divide um intervalo (candidatos da raiz ou pares) até o tamanho do grão
+     */
+    private final class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final boolean pairs;
+        
+        RangeTask(int from, int to, boolean pairs) {
+            this.from = from;
+            this.to = to;
+            this.pairs = pairs;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                WorkerScratch worker = scratch.get();
+                for (int i = from; i < to; i++) {
+                    if (pairs) {
+                        evaluatePair(worker, i);
+                    } else {
+                        expandRoot(worker, i);
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, pairs), new RangeTask(mid, to, pairs));
+        }
+    }
+    
+    /**
+     * Coloca o candidato i da raiz e gera as jogadas da segunda peça
+     * Com profundidade 2 a melhor nota estática já é o valor final; senão escolhe o beam
+     * e deixa rootComplete falso até a fase 2
+     */
+    private void expandRoot(WorkerScratch worker, int i) {
+        int index = rootBeam[i];
+        double staticScore = rootMoves.score[index];
+        childBeamSizes[i] = 0;
+        rootValues[i] = staticScore;
+        rootComplete[i] = staticScore >= GAME_OVER_SCORE; // game over: nota final, sem expandir
+        if (rootComplete[i]) {
+            return;
+        }
+        if (System.nanoTime() > deadline) {
+            timedOut = true;
+            return;
+        }
+        
+        Board board = rootBoards[i];
+        board.copyFrom(root);
+        board.placePiece(pieces[0], rootMoves.rotation[index], rootMoves.x[index], rootMoves.dropY[index]);
+        board.clearLines();
+        MoveBuffer moves = childMoves[i];
+        if (worker.generator.generate(board, pieces[1], moves) == 0) {
+            rootValues[i] = GAME_OVER_SCORE;
+            rootComplete[i] = true;
+        } else if (depth == 2) {
+            rootValues[i] = moves.score[moves.bestIndex()];
+            rootComplete[i] = true;
+        } else {
+            childBeamSizes[i] = LookaheadSearch.selectBeam(moves, childBeams[i]);
+        }
+    }
+    
+    /**
+     * Busca os níveis 3 em diante a partir do par p
+     */
+    private void evaluatePair(WorkerScratch worker, int p) {
+        int i = pairRoot[p];
+        MoveBuffer moves = childMoves[i];
+        int index = childBeams[i][pairChild[p]];
+        double staticScore = moves.score[index];
+        pairValues[p] = staticScore;
+        pairComplete[p] = staticScore >= GAME_OVER_SCORE;
+        if (pairComplete[p]) {
+            return;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            timedOut = true;
+            return;
+        }
+        
+        Board board = worker.board;
+        board.copyFrom(rootBoards[i]);
+        board.placePiece(pieces[1], moves.rotation[index], moves.x[index], moves.dropY[index]);
+        board.clearLines();
+        
+        int childCount = depth - 2;
+        System.arraycopy(pieces, 2, worker.pieces, 0, childCount);
+        long budget = deadline == Long.MAX_VALUE ? 0 : remaining;
+        boolean found = worker.search.search(board, worker.pieces, childCount, budget);
+        if (worker.search.isTimedOut()) {
+            timedOut = true;
+            return;
+        }
+        pairValues[p] = found ? worker.search.getBestScore() : GAME_OVER_SCORE;
+        pairComplete[p] = true;
+    }
+    
+    /**
+     * Valor de cada candidato da raiz: melhor par, se todos os pares dele terminaram
+     */
+    private void reducePairs(int beamSize) {
+        int p = 0;
+        for (int i = 0; i < beamSize; i++) {
+            if (rootComplete[i] || childBeamSizes[i] == 0) {
+                continue;
+            }
+            double value = Double.MAX_VALUE;
+            boolean complete = true;
+            for (int end = p + childBeamSizes[i]; p < end; p++) {
+                complete &= pairComplete[p];
+                value = Math.min(value, pairValues[p]);
+            }
+            rootValues[i] = value;
+            rootComplete[i] = complete;
+        }
+    }
+    
+    private boolean copyResult(boolean found) {
+        bestX = sequential.getBestX();
+        bestRotation = sequential.getBestRotation();
+        bestDropY = sequential.getBestDropY();
+        bestScore = sequential.getBestScore();
+        timedOut = sequential.isTimedOut();
+        return found;
+    }
+    
+    public int getBestX() {
+        return bestX;
+    }
+    
+    /**
+     * Rotação absoluta (índice na RotationTable)
+     */
+    public int getBestRotation() {
+        return bestRotation;
+    }
+    
+    public int getBestDropY() {
+        return bestDropY;
+    }
+    
+    public double getBestScore() {
+        return bestScore;
+    }
+    
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+    
+    public int getGrain() {
+        return grain;
+    }
+}
@@ -1,22 +1,66 @@
 package com.arcane.tetris.engine;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Representa o tabuleiro do Tetris (10x20)
  * Gerencia células ocupadas, colisões e limpeza de linhas
+ *
+ * Internamente usa um bitboard: cada linha é uma máscara de bits (bit x = coluna x)
+ * e as cores ficam num plano paralelo compacto, com 4 bits (nibble) por célula.
+ * Alturas, buracos e bumpiness são mantidos incrementalmente a cada alteração,
+ * a partir de uma máscara por coluna (bit y = linha y), então a leitura é O(1).
+ * Um hash Zobrist da ocupação também é mantido, para caches de transposição da IA.
  */
-public class Board {
+public class Board implements BoardView {
     public static final int WIDTH = 10;
     public static final int HEIGHT = 20;
     
-    private final int[][] grid; // 0 = vazio, 1-7 = tipo de peça
+    /** Máscara de uma linha completamente preenchida */
+    public static final int FULL_ROW = (1 << WIDTH) - 1;
+    
+    private static final int COLOR_BITS = 4;
+    private static final long COLOR_MASK = (1L << COLOR_BITS) - 1;
+    
+    // Chaves Zobrist: uma por célula e, derivada delas, uma por (linha, máscara da linha)
+    private static final long[] CELL_KEYS = new long[WIDTH * HEIGHT];
+    private static final long[][] ROW_KEYS = new long[HEIGHT][FULL_ROW + 1];
+    
+    static {
+        SplittableRandom keys = new SplittableRandom(0x7E7215L); // semente fixa: hash estável entre execuções
+        for (int i = 0; i < CELL_KEYS.length; i++) {
+            CELL_KEYS[i] = keys.nextLong();
+        }
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int mask = 1; mask <= FULL_ROW; mask++) {
+                int x = Integer.numberOfTrailingZeros(mask);
+                ROW_KEYS[y][mask] = ROW_KEYS[y][mask & (mask - 1)] ^ CELL_KEYS[y * WIDTH + x];
+            }
+        }
+    }
+    
+    private final int[] rows;          // ocupação: bit x ligado = célula ocupada
+    private final long[] colorRows;    // cores: nibble x = tipo de peça (0 = vazio, 1-7 = tipo, 8 = linha enviada)
     private int linesCleared;
+    private long version;          // incrementado a cada alteração (ver BoardView)
+    private long hash;             // hash Zobrist da ocupação
+    
+    // Métricas incrementais para a IA e o protocolo de rede
+    private final int[] columns;       // ocupação por coluna: bit y ligado = célula ocupada
+    private final int[] columnHeights;
+    private final int[] columnHoles;
+    private int aggregateHeight;
+    private int holes;
+    private int bumpiness;
     
     public Board() {
-        this.grid = new int[HEIGHT][WIDTH];
+        this.rows = new int[HEIGHT];
+        this.colorRows = new long[HEIGHT];
         this.linesCleared = 0;
+        this.columns = new int[WIDTH];
+        this.columnHeights = new int[WIDTH];
+        this.columnHoles = new int[WIDTH];
     }
     
     /**
@@ -33,97 +77,279 @@ public class Board {
         if (!isValidPosition(x, y)) {
             return true; // Fora dos limites = ocupado (colisão)
         }
-        return grid[y][x] != 0;
+        return (rows[y] & (1 << x)) != 0;
+    }
+    
+    @Override
+    public int getCell(int x, int y) {
+        return (int) ((colorRows[y] >>> (x * COLOR_BITS)) & COLOR_MASK);
+    }
+    
+    @Override
+    public int getRowMask(int y) {
+        return rows[y];
+    }
+    
+    @Override
+    public long getVersion() {
+        return version;
     }
     
     /**
      * Verifica se uma peça pode ser colocada em uma posição
      */
     public boolean canPlacePiece(Piece piece, int x, int y) {
-        int[][] shape = piece.getShape();
-        for (int row = 0; row < shape.length; row++) {
-            for (int col = 0; col < shape[row].length; col++) {
-                if (shape[row][col] != 0) {
-                    int boardX = x + col;
-                    int boardY = y + row;
-                    if (isOccupied(boardX, boardY)) {
-                        return false;
-                    }
-                }
+        return canPlacePiece(piece.getType(), piece.getRotation(), x, y);
+    }
+    
+    /**
+     * Verifica se um tipo de peça numa dada rotação cabe na posição (sem alocar)
+     */
+    public boolean canPlacePiece(PieceType type, int rotation, int x, int y) {
+        int[] masks = RotationTable.rowMasks(type, rotation);
+        for (int row = 0; row < masks.length; row++) {
+            int mask = masks[row];
+            if (mask != 0 && collides(mask, x, y + row)) {
+                return false;
             }
         }
         return true;
     }
     
+    /**
+     * Testa uma linha da peça (máscara relativa à coluna x) contra a linha boardY
+     */
+    private boolean collides(int mask, int x, int boardY) {
+        if (boardY < 0 || boardY >= HEIGHT) {
+            return true;
+        }
+        int shifted;
+        if (x >= 0) {
+            shifted = mask << x;
+            if ((shifted & ~FULL_ROW) != 0) {
+                return true; // Saiu pela direita
+            }
+        } else {
+            if ((mask & ((1 << -x) - 1)) != 0) {
+                return true; // Saiu pela esquerda
+            }
+            shifted = mask >>> -x;
+        }
+        return (rows[boardY] & shifted) != 0;
+    }
+    
     /**
      * Coloca uma peça no tabuleiro (quando ela "gruda")
      */
     public void placePiece(Piece piece, int x, int y) {
-        int[][] shape = piece.getShape();
-        int color = piece.getType().ordinal() + 1;
+        placePiece(piece.getType(), piece.getRotation(), x, y);
+    }
+    
+    /**
+     * Coloca um tipo de peça numa dada rotação (sem alocar)
+     */
+    public void placePiece(PieceType type, int rotation, int x, int y) {
+        int[] cellX = RotationTable.cellX(type, rotation);
+        int[] cellY = RotationTable.cellY(type, rotation);
+        int color = type.ordinal() + 1;
+        int touched = 0;
         
-        for (int row = 0; row < shape.length; row++) {
-            for (int col = 0; col < shape[row].length; col++) {
-                if (shape[row][col] != 0) {
-                    int boardX = x + col;
-                    int boardY = y + row;
-                    if (isValidPosition(boardX, boardY)) {
-                        grid[boardY][boardX] = color;
-                    }
-                }
+        for (int i = 0; i < cellX.length; i++) {
+            int boardX = x + cellX[i];
+            int boardY = y + cellY[i];
+            if (isValidPosition(boardX, boardY)) {
+                setCell(boardX, boardY, color);
+                touched |= 1 << boardX;
             }
         }
+        refreshColumns(touched);
+        version++;
+    }
+    
+    /**
+     * Define a cor de uma célula nos dois planos (0 = vazio)
+     */
+    private void setCell(int x, int y, int color) {
+        int shift = x * COLOR_BITS;
+        colorRows[y] = (colorRows[y] & ~(COLOR_MASK << shift)) | ((long) color << shift);
+        if (((rows[y] >>> x) & 1) != (color != 0 ? 1 : 0)) {
+            hash ^= CELL_KEYS[y * WIDTH + x];
+        }
+        if (color != 0) {
+            rows[y] |= 1 << x;
+            columns[x] |= 1 << y;
+        } else {
+            rows[y] &= ~(1 << x);
+            columns[x] &= ~(1 << y);
+        }
+    }
+    
+    /**
+     * Recalcula o hash a partir das linhas (após deslocamentos de linhas inteiras)
+     */
+    private void rehash() {
+        long h = 0L;
+        for (int y = 0; y < HEIGHT; y++) {
+            h ^= ROW_KEYS[y][rows[y]];
+        }
+        hash = h;
+    }
+    
+    /**
+     * Recalcula altura e buracos das colunas marcadas em columnMask (bit x = coluna x)
+     * e ajusta os agregados pela diferença, sem varrer o tabuleiro
+     */
+    private void refreshColumns(int columnMask) {
+        while (columnMask != 0) {
+            int x = Integer.numberOfTrailingZeros(columnMask);
+            columnMask &= columnMask - 1;
+            refreshColumn(x);
+        }
+    }
+    
+    private void refreshColumn(int x) {
+        int column = columns[x];
+        int height = column == 0 ? 0 : HEIGHT - Integer.numberOfTrailingZeros(column);
+        int columnHoleCount = height - Integer.bitCount(column);
+        
+        int oldHeight = columnHeights[x];
+        if (x > 0) {
+            bumpiness += Math.abs(columnHeights[x - 1] - height) - Math.abs(columnHeights[x - 1] - oldHeight);
+        }
+        if (x < WIDTH - 1) {
+            bumpiness += Math.abs(height - columnHeights[x + 1]) - Math.abs(oldHeight - columnHeights[x + 1]);
+        }
+        aggregateHeight += height - oldHeight;
+        holes += columnHoleCount - columnHoles[x];
+        columnHeights[x] = height;
+        columnHoles[x] = columnHoleCount;
+    }
+    
+    /**
+     * Remove o bit da linha y de todas as colunas, descendo os bits acima (y menores)
+     */
+    private void removeColumnBitShiftingDown(int line) {
+        int above = (1 << line) - 1;
+        int below = ~((1 << (line + 1)) - 1);
+        for (int x = 0; x < WIDTH; x++) {
+            int column = columns[x];
+            columns[x] = (column & below) | ((column & above) << 1);
+        }
+    }
+    
+    /**
+     * Remove o bit da linha y de todas as colunas, subindo os bits abaixo (y maiores)
+     */
+    private void removeColumnBitShiftingUp(int line) {
+        int above = (1 << line) - 1;
+        int below = ~((1 << (line + 1)) - 1);
+        for (int x = 0; x < WIDTH; x++) {
+            int column = columns[x];
+            columns[x] = (column & above) | ((column & below) >>> 1);
+        }
+    }
+    
+    /**
+     * Remove a linha y deslocando as linhas acima para baixo (topo fica vazio)
+     */
+    private void removeRowShiftingDown(int line) {
+        System.arraycopy(rows, 0, rows, 1, line);
+        System.arraycopy(colorRows, 0, colorRows, 1, line);
+        rows[0] = 0;
+        colorRows[0] = 0L;
+        removeColumnBitShiftingDown(line);
+        refreshColumns(FULL_ROW);
+        rehash();
+        version++;
+    }
+    
+    /**
+     * Remove a linha y deslocando as linhas abaixo para cima (base fica vazia)
+     */
+    private void removeRowShiftingUp(int line) {
+        System.arraycopy(rows, line + 1, rows, line, HEIGHT - 1 - line);
+        System.arraycopy(colorRows, line + 1, colorRows, line, HEIGHT - 1 - line);
+        rows[HEIGHT - 1] = 0;
+        colorRows[HEIGHT - 1] = 0L;
+        removeColumnBitShiftingUp(line);
+        refreshColumns(FULL_ROW);
+        rehash();
+        version++;
     }
     
     /**
      * Remove linhas completas e retorna quantas foram removidas
      */
     public int clearLines() {
-        List<Integer> fullLines = new ArrayList<>();
-        
-        // Identifica linhas completas
-        for (int y = 0; y < HEIGHT; y++) {
-            boolean isFull = true;
-            for (int x = 0; x < WIDTH; x++) {
-                if (grid[y][x] == 0) {
-                    isFull = false;
-                    break;
+        // Compacta de baixo para cima, copiando apenas as linhas que não estão completas
+        int write = HEIGHT - 1;
+        int fullRows = 0; // bit y = linha y estava completa
+        for (int read = HEIGHT - 1; read >= 0; read--) {
+            if (rows[read] != FULL_ROW) {
+                if (write != read) {
+                    rows[write] = rows[read];
+                    colorRows[write] = colorRows[read];
                 }
-            }
-            if (isFull) {
-                fullLines.add(y);
+                write--;
+            } else {
+                fullRows |= 1 << read;
             }
         }
         
-        // Remove linhas completas (de baixo para cima)
-        for (int line : fullLines) {
-            for (int y = line; y > 0; y--) {
-                System.arraycopy(grid[y - 1], 0, grid[y], 0, WIDTH);
-            }
-            // Limpa a linha superior
-            for (int x = 0; x < WIDTH; x++) {
-                grid[0][x] = 0;
+        int cleared = write + 1;
+        for (int y = 0; y < cleared; y++) {
+            rows[y] = 0;
+            colorRows[y] = 0L;
+        }
+        
+        if (cleared > 0) {
+            // Remove as linhas das máscaras de coluna de cima para baixo (as de baixo não se movem)
+            while (fullRows != 0) {
+                removeColumnBitShiftingDown(Integer.numberOfTrailingZeros(fullRows));
+                fullRows &= fullRows - 1;
             }
+            refreshColumns(FULL_ROW);
+            rehash();
+            version++;
         }
         
-        linesCleared += fullLines.size();
-        return fullLines.size();
+        linesCleared += cleared;
+        return cleared;
     }
     
     /**
      * Adiciona uma linha na parte inferior (efeito de feitiço PushLine)
+     * Buraco em coluna aleatória; para partidas reproduzíveis use GameEngine.pushLine()
      */
     public void pushLine() {
+        pushLine(ThreadLocalRandom.current().nextInt(WIDTH));
+    }
+    
+    /**
+     * Adiciona uma linha na parte inferior com o buraco na coluna informada
+     */
+    public void pushLine(int hole) {
         // Move todas as linhas para cima
-        for (int y = 0; y < HEIGHT - 1; y++) {
-            System.arraycopy(grid[y + 1], 0, grid[y], 0, WIDTH);
+        System.arraycopy(rows, 1, rows, 0, HEIGHT - 1);
+        System.arraycopy(colorRows, 1, colorRows, 0, HEIGHT - 1);
+        
+        // Cria nova linha com um buraco na coluna escolhida
+        int mask = FULL_ROW & ~(1 << hole);
+        long colors = 0L;
+        for (int x = 0; x < WIDTH; x++) {
+            if (x != hole) {
+                colors |= 8L << (x * COLOR_BITS); // 8 = cor de linha enviada
+            }
         }
+        rows[HEIGHT - 1] = mask;
+        colorRows[HEIGHT - 1] = colors;
         
-        // Cria nova linha com um buraco aleatório
-        int hole = (int) (Math.random() * WIDTH);
         for (int x = 0; x < WIDTH; x++) {
-            grid[HEIGHT - 1][x] = (x == hole) ? 0 : 8; // 8 = cor de linha enviada
+            columns[x] = (columns[x] >>> 1) | (((mask >>> x) & 1) << (HEIGHT - 1));
         }
+        refreshColumns(FULL_ROW);
+        rehash();
+        version++;
     }
     
     /**
@@ -131,15 +357,19 @@ public class Board {
      * Use removeTopTwoCompleteLines() ao invés disso
      */
     public void bomb(int centerX, int centerY) {
+        int touched = 0;
         for (int dy = -1; dy <= 1; dy++) {
             for (int dx = -1; dx <= 1; dx++) {
                 int x = centerX + dx;
                 int y = centerY + dy;
                 if (isValidPosition(x, y)) {
-                    grid[y][x] = 0;
+                    setCell(x, y, 0);
+                    touched |= 1 << x;
                 }
             }
         }
+        refreshColumns(touched);
+        version++;
     }
     
     /**
@@ -153,35 +383,19 @@ public class Board {
         // Remove até 2 linhas, priorizando linhas completas
         while (removed < 2) {
             int lineToRemove = -1;
-            boolean foundComplete = false;
             
             // Primeiro procura por linhas completas (de cima para baixo)
             for (int y = 0; y < HEIGHT; y++) {
-                boolean isFull = true;
-                for (int x = 0; x < WIDTH; x++) {
-                    if (grid[y][x] == 0) {
-                        isFull = false;
-                        break;
-                    }
-                }
-                if (isFull) {
+                if (rows[y] == FULL_ROW) {
                     lineToRemove = y;
-                    foundComplete = true;
                     break;
                 }
             }
             
             // Se não encontrou linha completa, procura qualquer linha com blocos
-            if (!foundComplete) {
+            if (lineToRemove == -1) {
                 for (int y = 0; y < HEIGHT; y++) {
-                    boolean hasBlocks = false;
-                    for (int x = 0; x < WIDTH; x++) {
-                        if (grid[y][x] != 0) {
-                            hasBlocks = true;
-                            break;
-                        }
-                    }
-                    if (hasBlocks) {
+                    if (rows[y] != 0) {
                         lineToRemove = y;
                         break;
                     }
@@ -194,13 +408,7 @@ public class Board {
             }
             
             // Remove a linha encontrada: move todas as linhas acima para baixo
-            for (int y = lineToRemove; y > 0; y--) {
-                System.arraycopy(grid[y - 1], 0, grid[y], 0, WIDTH);
-            }
-            // Limpa a linha superior
-            for (int x = 0; x < WIDTH; x++) {
-                grid[0][x] = 0;
-            }
+            removeRowShiftingDown(lineToRemove);
             removed++;
         }
     }
@@ -213,46 +421,16 @@ public class Board {
     public void removeBottomCompleteLine() {
         // Primeiro tenta encontrar uma linha completa
         for (int y = HEIGHT - 1; y >= 0; y--) {
-            boolean isFull = true;
-            for (int x = 0; x < WIDTH; x++) {
-                if (grid[y][x] == 0) {
-                    isFull = false;
-                    break;
-                }
-            }
-            
-            if (isFull) {
-                // Remove esta linha completa: move todas as linhas acima para baixo
-                for (int yy = y; yy < HEIGHT - 1; yy++) {
-                    System.arraycopy(grid[yy + 1], 0, grid[yy], 0, WIDTH);
-                }
-                // Limpa a última linha (base)
-                for (int x = 0; x < WIDTH; x++) {
-                    grid[HEIGHT - 1][x] = 0;
-                }
+            if (rows[y] == FULL_ROW) {
+                removeRowShiftingUp(y);
                 return; // Remove apenas uma linha
             }
         }
         
         // Se não encontrou linha completa, remove a última linha que tenha pelo menos um bloco
         for (int y = HEIGHT - 1; y >= 0; y--) {
-            boolean hasBlocks = false;
-            for (int x = 0; x < WIDTH; x++) {
-                if (grid[y][x] != 0) {
-                    hasBlocks = true;
-                    break;
-                }
-            }
-            
-            if (hasBlocks) {
-                // Remove esta linha: move todas as linhas acima para baixo
-                for (int yy = y; yy < HEIGHT - 1; yy++) {
-                    System.arraycopy(grid[yy + 1], 0, grid[yy], 0, WIDTH);
-                }
-                // Limpa a última linha (base)
-                for (int x = 0; x < WIDTH; x++) {
-                    grid[HEIGHT - 1][x] = 0;
-                }
+            if (rows[y] != 0) {
+                removeRowShiftingUp(y);
                 return; // Remove apenas uma linha
             }
         }
@@ -262,40 +440,27 @@ public class Board {
      * Calcula a altura agregada (heurística para IA)
      */
     public double getAggregateHeight() {
-        double sum = 0;
-        for (int x = 0; x < WIDTH; x++) {
-            sum += getColumnHeight(x);
-        }
-        return sum;
+        return aggregateHeight;
     }
     
     /**
      * Retorna a altura de uma coluna
      */
     public int getColumnHeight(int x) {
-        for (int y = 0; y < HEIGHT; y++) {
-            if (grid[y][x] != 0) {
-                return HEIGHT - y;
-            }
-        }
-        return 0;
+        return columnHeights[x];
+    }
+    
+    /**
+     * Retorna o número de buracos de uma coluna
+     */
+    public int getColumnHoles(int x) {
+        return columnHoles[x];
     }
     
     /**
      * Conta o número de buracos (células vazias com blocos acima)
      */
     public int getHoles() {
-        int holes = 0;
-        for (int x = 0; x < WIDTH; x++) {
-            boolean foundBlock = false;
-            for (int y = 0; y < HEIGHT; y++) {
-                if (grid[y][x] != 0) {
-                    foundBlock = true;
-                } else if (foundBlock) {
-                    holes++;
-                }
-            }
-        }
         return holes;
     }
     
@@ -303,20 +468,27 @@ public class Board {
      * Calcula a "bumpiness" (variação de altura entre colunas)
      */
     public double getBumpiness() {
-        double sum = 0;
-        for (int x = 0; x < WIDTH - 1; x++) {
-            sum += Math.abs(getColumnHeight(x) - getColumnHeight(x + 1));
-        }
-        return sum;
+        return bumpiness;
+    }
+    
+    /**
+     * Hash Zobrist da ocupação (cores não entram): boards com as mesmas células ocupadas
+     * têm o mesmo hash, independentemente da sequência de jogadas que os produziu
+     */
+    public long getHash() {
+        return hash;
     }
     
     /**
-     * Retorna uma cópia do grid (para IA e renderização)
+     * Retorna uma cópia do grid (snapshot)
+     * Para leituras a cada frame prefira os acessores de BoardView, que não copiam
      */
     public int[][] getGrid() {
         int[][] copy = new int[HEIGHT][WIDTH];
         for (int y = 0; y < HEIGHT; y++) {
-            System.arraycopy(grid[y], 0, copy[y], 0, WIDTH);
+            for (int x = 0; x < WIDTH; x++) {
+                copy[y][x] = getCell(x, y);
+            }
         }
         return copy;
     }
@@ -329,12 +501,7 @@ public class Board {
      * Verifica se o jogo acabou (linha superior ocupada)
      */
     public boolean isGameOver() {
-        for (int x = 0; x < WIDTH; x++) {
-            if (grid[0][x] != 0) {
-                return true;
-            }
-        }
-        return false;
+        return rows[0] != 0;
     }
     
     /**
@@ -342,11 +509,42 @@ public class Board {
      */
     public void clear() {
         for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                grid[y][x] = 0;
-            }
+            rows[y] = 0;
+            colorRows[y] = 0L;
         }
         linesCleared = 0;
+        for (int x = 0; x < WIDTH; x++) {
+            columns[x] = 0;
+            columnHeights[x] = 0;
+            columnHoles[x] = 0;
+        }
+        aggregateHeight = 0;
+        holes = 0;
+        bumpiness = 0;
+        hash = 0L;
+        version++;
+    }
+    
+    /**
+     * Copia o estado de outro board para este sem alocar
+     * (usado pela IA para desfazer jogadas num board de rascunho)
+     */
+    public void copyFrom(Board other) {
+        System.arraycopy(other.rows, 0, rows, 0, HEIGHT);
+        System.arraycopy(other.colorRows, 0, colorRows, 0, HEIGHT);
+        linesCleared = other.linesCleared;
+        copyMetricsFrom(other);
+        version++;
+    }
+    
+    private void copyMetricsFrom(Board other) {
+        System.arraycopy(other.columns, 0, columns, 0, WIDTH);
+        System.arraycopy(other.columnHeights, 0, columnHeights, 0, WIDTH);
+        System.arraycopy(other.columnHoles, 0, columnHoles, 0, WIDTH);
+        aggregateHeight = other.aggregateHeight;
+        holes = other.holes;
+        bumpiness = other.bumpiness;
+        hash = other.hash;
     }
     
     /**
@@ -354,11 +552,10 @@ public class Board {
      */
     public Board copy() {
         Board copy = new Board();
-        for (int y = 0; y < HEIGHT; y++) {
-            System.arraycopy(grid[y], 0, copy.grid[y], 0, WIDTH);
-        }
+        System.arraycopy(rows, 0, copy.rows, 0, HEIGHT);
+        System.arraycopy(colorRows, 0, copy.colorRows, 0, HEIGHT);
         copy.linesCleared = this.linesCleared;
+        copy.copyMetricsFrom(this);
         return copy;
     }
 }
-
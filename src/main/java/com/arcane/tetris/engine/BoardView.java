@@ -0,0 +1,23 @@
+package com.arcane.tetris.engine;
+
+/**
+ * Visão somente leitura do tabuleiro, sem cópias
+ * Para renderização e serialização: leia células ou máscaras de linha diretamente
+ * e use a versão para saber se algo mudou desde a última leitura
+ */
+public interface BoardView {
+    /**
+     * Cor da célula (0 = vazio, 1-7 = tipo de peça, 8 = linha enviada)
+     */
+    int getCell(int x, int y);
+    
+    /**
+     * Máscara de ocupação da linha (bit x ligado = coluna x ocupada)
+     */
+    int getRowMask(int y);
+    
+    /**
+     * Contador incrementado a cada alteração do tabuleiro
+     */
+    long getVersion();
+}
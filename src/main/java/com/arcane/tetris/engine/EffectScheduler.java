@@ -0,0 +1,84 @@
+package com.arcane.tetris.engine;
+
+import java.util.PriorityQueue;
+
+/**
+ * Agenda efeitos temporários no relógio lógico da partida
+ * O tempo só anda em advance(), chamado pelo GameEngine.update: efeitos pausam com o jogo,
+ * rodam na thread do jogo e se comportam igual na simulação headless
+ */
+public class EffectScheduler {
+    private final PriorityQueue<Timer> queue = new PriorityQueue<>();
+    private double now;
+    private long nextSeq;
+    
+    /**
+     * Efeito agendado; cancel() impede a execução se ainda não aconteceu
+     */
+    public static final class Timer implements Comparable<Timer> {
+        private final double due;
+        private final long seq;  // desempate: mesma hora, ordem de agendamento
+        private final Runnable action;
+        private boolean cancelled;
+        
+        private Timer(double due, long seq, Runnable action) {
+            this.due = due;
+            this.seq = seq;
+            this.action = action;
+        }
+        
+        public void cancel() {
+            cancelled = true;
+        }
+        
+        public boolean isCancelled() {
+            return cancelled;
+        }
+        
+        @Override
+        public int compareTo(Timer other) {
+            int byDue = Double.compare(due, other.due);
+            return byDue != 0 ? byDue : Long.compare(seq, other.seq);
+        }
+    }
+    
+    /**
+     * Agenda action para daqui a delay segundos de jogo
+     */
+    public Timer schedule(double delay, Runnable action) {
+        Timer timer = new Timer(now + Math.max(0, delay), nextSeq++, action);
+        queue.add(timer);
+        return timer;
+    }
+    
+    /**
+     * Avança o relógio e executa, em ordem, os efeitos que venceram
+     * Um efeito pode agendar outro; se ele vence dentro deste passo, também roda agora
+     */
+    public void advance(double deltaTime) {
+        now += deltaTime;
+        Timer timer;
+        while ((timer = queue.peek()) != null && timer.due <= now) {
+            queue.poll();
+            if (!timer.cancelled) {
+                timer.action.run();
+            }
+        }
+    }
+    
+    /**
+     * Descarta os efeitos pendentes e zera o relógio
+     */
+    public void clear() {
+        queue.clear();
+        now = 0;
+    }
+    
+    public double getTime() {
+        return now;
+    }
+    
+    public int getPendingCount() {
+        return queue.size();
+    }
+}
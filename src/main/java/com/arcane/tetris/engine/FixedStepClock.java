@@ -0,0 +1,58 @@
+package com.arcane.tetris.engine;
+
+/**
+ * Acumulador de passo fixo: converte o tempo variável de cada frame num número inteiro
+ * de ticks de lógica, para o jogo se comportar igual em qualquer taxa de atualização
+ * Após um travamento, no máximo maxStepsPerFrame ticks são recuperados; o resto do atraso
+ * é descartado para o loop não entrar em espiral
+ */
+public class FixedStepClock {
+    private static final double EPSILON = 1e-9; // absorve o erro de arredondamento das somas
+    
+    private final double step;
+    private final int maxStepsPerFrame;
+    private double accumulator;
+    private double droppedTime;
+    
+    public FixedStepClock(double step, int maxStepsPerFrame) {
+        this.step = step;
+        this.maxStepsPerFrame = Math.max(1, maxStepsPerFrame);
+    }
+    
+    /**
+     * Soma o tempo do frame e retorna quantos ticks de step segundos devem rodar
+     */
+    public int advance(double frameSeconds) {
+        accumulator += Math.max(0, frameSeconds);
+        int steps = (int) ((accumulator + EPSILON) / step);
+        if (steps > maxStepsPerFrame) {
+            droppedTime += accumulator - maxStepsPerFrame * step;
+            accumulator = 0;
+            return maxStepsPerFrame;
+        }
+        accumulator = Math.max(0, accumulator - steps * step);
+        return steps;
+    }
+    
+    /**
+     * Fração do próximo tick já decorrida (0..1), para interpolar a renderização
+     */
+    public double getAlpha() {
+        return Math.min(1.0, accumulator / step);
+    }
+    
+    public double getStep() {
+        return step;
+    }
+    
+    /**
+     * Tempo descartado pelo limite de recuperação desde a criação
+     */
+    public double getDroppedTime() {
+        return droppedTime;
+    }
+    
+    public void reset() {
+        accumulator = 0;
+    }
+}
@@ -3,6 +3,7 @@ package com.arcane.tetris.engine;
 import com.arcane.tetris.util.Logger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Motor principal do jogo Tetris
@@ -22,6 +23,9 @@ public class GameEngine {
     private boolean isPaused;
     private boolean isGameOver;
     private double timeSlowMultiplier; // multiplicador de velocidade (efeito de feitiço)
+    private EffectScheduler.Timer timeSlowTimer;
+    private final EffectScheduler effects = new EffectScheduler(); // efeitos com duração, no tempo de jogo
+    private final SplittableRandom random; // fonte aleatória da partida (semeada)
     
     // Callbacks para UI
     private List<Runnable> onLineClearCallbacks;
@@ -29,8 +33,20 @@ public class GameEngine {
     private List<Runnable> onScoreUpdateCallbacks;
     
     public GameEngine() {
+        this(new SplittableRandom());
+    }
+    
+    /**
+     * Cria um engine reproduzível: mesma semente, mesma sequência de peças e linhas enviadas
+     */
+    public GameEngine(long seed) {
+        this(new SplittableRandom(seed));
+    }
+    
+    private GameEngine(SplittableRandom random) {
+        this.random = random;
         this.board = new Board();
-        this.pieceBag = new PieceBag();
+        this.pieceBag = new PieceBag(random.split());
         this.score = 0;
         this.level = 1;
         this.lines = 0;
@@ -54,21 +70,39 @@ public class GameEngine {
             return;
         }
         
+        // Efeitos vencem no tempo real de jogo (o TimeSlow não estica a própria duração)
+        effects.advance(deltaTime);
+        
         // Aplica efeito de TimeSlow
         double effectiveDelta = deltaTime * timeSlowMultiplier;
         
         fallTimer += effectiveDelta;
         double timePerLine = 1.0 / fallSpeed;
         
-        if (fallTimer >= timePerLine) {
-            fallTimer = 0.0;
+        // Mantém o resto do timer (sem deriva) e cai várias linhas se o passo foi longo
+        while (fallTimer >= timePerLine && !isGameOver) {
+            fallTimer -= timePerLine;
             if (!movePiece(0, 1)) {
-                // Peça não pode cair mais, gruda no tabuleiro
+                // Peça não pode cair mais, gruda no tabuleiro; a próxima começa do zero
                 lockPiece();
+                fallTimer = 0.0;
             }
         }
     }
     
+    /**
+     * Quanto da próxima linha a peça atual já percorreu (0..1), projetado extraSeconds
+     * à frente; 0 se a peça está apoiada. Usado para interpolar a renderização entre ticks
+     */
+    public double getFallOffset(double extraSeconds) {
+        if (currentPiece == null || isPaused || isGameOver
+                || !board.canPlacePiece(currentPiece, currentX, currentY + 1)) {
+            return 0.0;
+        }
+        double progress = (fallTimer + extraSeconds * timeSlowMultiplier) * fallSpeed;
+        return Math.max(0.0, Math.min(progress, 1.0));
+    }
+    
     /**
      * Move a peça atual (retorna false se não conseguir)
      */
@@ -96,19 +130,21 @@ public class GameEngine {
             return false;
         }
         
-        Piece rotated = currentPiece.rotatedCopy();
-        if (board.canPlacePiece(rotated, currentX, currentY)) {
+        // Testa a próxima rotação direto na tabela, sem criar uma peça temporária
+        PieceType type = currentPiece.getType();
+        int rotated = (currentPiece.getRotation() + 1) % RotationTable.ROTATIONS;
+        if (board.canPlacePiece(type, rotated, currentX, currentY)) {
             currentPiece.rotate();
             return true;
         }
         
         // Tenta wall kick (desliza 1 posição para os lados)
-        if (board.canPlacePiece(rotated, currentX - 1, currentY)) {
+        if (board.canPlacePiece(type, rotated, currentX - 1, currentY)) {
             currentPiece.rotate();
             currentX--;
             return true;
         }
-        if (board.canPlacePiece(rotated, currentX + 1, currentY)) {
+        if (board.canPlacePiece(type, rotated, currentX + 1, currentY)) {
             currentPiece.rotate();
             currentX++;
             return true;
@@ -125,8 +161,13 @@ public class GameEngine {
             return;
         }
         
+        int dropped = 0;
         while (movePiece(0, 1)) {
             score += 2; // Pontos extras por hard drop
+            dropped++;
+        }
+        if (dropped > 0) {
+            notifyScoreUpdate();
         }
         lockPiece();
     }
@@ -193,7 +234,10 @@ public class GameEngine {
         int[] points = {0, 100, 300, 500, 800}; // 0, 1, 2, 3, 4 linhas
         int pointsEarned = linesCleared < points.length ? points[linesCleared] : 800;
         score += pointsEarned * level;
-        
+        notifyScoreUpdate();
+    }
+    
+    private void notifyScoreUpdate() {
         for (Runnable callback : onScoreUpdateCallbacks) {
             callback.run();
         }
@@ -213,11 +257,15 @@ public class GameEngine {
     }
     
     /**
-     * Aplica efeito de TimeSlow (reduz velocidade)
+     * Aplica efeito de TimeSlow (reduz velocidade) por duration segundos de jogo
+     * Um novo TimeSlow substitui o anterior e reinicia a duração
      */
     public void applyTimeSlow(double multiplier, double duration) {
         timeSlowMultiplier = multiplier;
-        // TODO: Implementar timer para reverter após duration
+        if (timeSlowTimer != null) {
+            timeSlowTimer.cancel();
+        }
+        timeSlowTimer = effects.schedule(duration, this::removeTimeSlow);
     }
     
     /**
@@ -225,6 +273,36 @@ public class GameEngine {
      */
     public void removeTimeSlow() {
         timeSlowMultiplier = 1.0;
+        if (timeSlowTimer != null) {
+            timeSlowTimer.cancel();
+            timeSlowTimer = null;
+        }
+    }
+    
+    /**
+     * Linhas por segundo no nível atual (sem TimeSlow)
+     */
+    public double getFallSpeed() {
+        return fallSpeed;
+    }
+    
+    public double getTimeSlowMultiplier() {
+        return timeSlowMultiplier;
+    }
+    
+    /**
+     * Agenda de efeitos temporários desta partida (avança em update)
+     */
+    public EffectScheduler getEffects() {
+        return effects;
+    }
+    
+    /**
+     * Envia uma linha com buraco para este tabuleiro (efeito de feitiço PushLine)
+     * O buraco vem da fonte aleatória da partida
+     */
+    public void pushLine() {
+        board.pushLine(random.nextInt(Board.WIDTH));
     }
     
     /**
@@ -317,7 +395,10 @@ public class GameEngine {
         isPaused = false;
         isGameOver = false;
         timeSlowMultiplier = 1.0;
+        timeSlowTimer = null;
+        effects.clear();
         spawnNextPiece();
+        notifyScoreUpdate();
     }
     
     // Callbacks
@@ -329,6 +410,9 @@ public class GameEngine {
         onGameOverCallbacks.add(callback);
     }
     
+    /**
+     * Chamado sempre que a pontuação muda (linhas, hard drop, reset)
+     */
     public void onScoreUpdate(Runnable callback) {
         onScoreUpdateCallbacks.add(callback);
     }
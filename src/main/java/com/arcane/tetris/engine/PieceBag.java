@@ -1,20 +1,27 @@
 package com.arcane.tetris.engine;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Sistema de bag 7 aleatório para distribuição justa de peças
  * Garante que todas as 7 peças apareçam antes de repetir
+ * A ordem vem de uma fonte aleatória própria (semeada), então a sequência é reproduzível
  */
 public class PieceBag {
     private List<PieceType> bag;
     private int index;
+    private final SplittableRandom random;
     
     public PieceBag() {
+        this(new SplittableRandom());
+    }
+    
+    public PieceBag(SplittableRandom random) {
         this.bag = new ArrayList<>();
         this.index = 0;
+        this.random = random;
         refillBag();
     }
     
@@ -26,7 +33,13 @@ public class PieceBag {
         for (PieceType type : PieceType.values()) {
             bag.add(type);
         }
-        Collections.shuffle(bag);
+        // Fisher-Yates com a fonte semeada do bag
+        for (int i = bag.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            PieceType tmp = bag.get(i);
+            bag.set(i, bag.get(j));
+            bag.set(j, tmp);
+        }
         index = 0;
     }
     
@@ -8,6 +8,9 @@ import java.util.Map;
  * Representa um jogador com seu engine, mana e feitiços
  */
 public class Player {
+    /** Ordem fixa dos feitiços: o índice de cada um (spellIndex) vale para todo jogador */
+    public static final String[] SPELL_IDS = {"PushLine", "TimeSlow", "PieceSwap", "Bomb", "Shield"};
+    
     private final String id;
     private final String name;
     private GameEngine engine;
@@ -15,12 +18,25 @@ public class Player {
     private int maxMana;
     private int manaPerLine;
     private Map<String, Spell> spells;
+    private final Spell[] spellsByIndex = new Spell[SPELL_IDS.length];
     private boolean isShielded;
+    private long statsVersion; // muda junto com pontuação, linhas, nível ou mana
     
     public Player(String id, String name) {
+        this(id, name, new GameEngine());
+    }
+    
+    /**
+     * Cria um jogador com partida reproduzível (ver GameEngine(long))
+     */
+    public Player(String id, String name, long seed) {
+        this(id, name, new GameEngine(seed));
+    }
+    
+    private Player(String id, String name, GameEngine engine) {
         this.id = id;
         this.name = name;
-        this.engine = new GameEngine();
+        this.engine = engine;
         this.maxMana = 100;
         this.mana = 0;
         this.manaPerLine = 10;
@@ -32,8 +48,10 @@ public class Player {
         
         // Callback para ganhar mana ao completar linhas
         engine.onLineClear(() -> {
+            statsVersion++;
             addMana(manaPerLine);
         });
+        engine.onScoreUpdate(() -> statsVersion++);
     }
     
     /**
@@ -45,13 +63,36 @@ public class Player {
         spells.put("PieceSwap", new PieceSwapSpell());
         spells.put("Bomb", new BombSpell());
         spells.put("Shield", new ShieldSpell());
+        for (int i = 0; i < SPELL_IDS.length; i++) {
+            spellsByIndex[i] = spells.get(SPELL_IDS[i]);
+        }
+    }
+    
+    /**
+     * Índice do feitiço em SPELL_IDS (-1 se não existe)
+     */
+    public static int spellIndex(String spellId) {
+        for (int i = 0; i < SPELL_IDS.length; i++) {
+            if (SPELL_IDS[i].equals(spellId)) {
+                return i;
+            }
+        }
+        return -1;
     }
     
     /**
      * Adiciona mana ao jogador
      */
     public void addMana(int amount) {
-        mana = Math.min(maxMana, mana + amount);
+        setMana(Math.min(maxMana, mana + amount));
+    }
+    
+    private void setMana(int value) {
+        if (value == mana) {
+            return;
+        }
+        mana = value;
+        statsVersion++;
     }
     
     /**
@@ -87,7 +128,7 @@ public class Player {
         // Verifica se pode lançar (mana, cooldown, etc)
         if (spell.canCast(mana)) {
             spell.cast(target != null ? target.engine : null, this.engine);
-            mana -= spell.getManaCost();
+            setMana(mana - spell.getManaCost());
             return true;
         }
         return false; // Não gasta mana se não pode lançar
@@ -132,13 +173,28 @@ public class Player {
         return spells;
     }
     
+    /**
+     * Feitiço pelo índice em SPELL_IDS, sem consultar o mapa
+     */
+    public Spell getSpell(int index) {
+        return spellsByIndex[index];
+    }
+    
     public boolean isShielded() {
         return isShielded;
     }
     
+    /**
+     * Contador que avança a cada mudança de pontuação, linhas, nível ou mana
+     * Quem exibe esses valores só precisa relê-los quando ele muda
+     */
+    public long getStatsVersion() {
+        return statsVersion;
+    }
+    
     public void reset() {
         engine.reset();
-        mana = 0;
+        setMana(0);
         isShielded = false;
         for (Spell spell : spells.values()) {
             spell.reset();
@@ -0,0 +1,208 @@
+package com.arcane.tetris.engine;
+
+import java.util.Arrays;
+
+/**
+ * Retrato imutável de um jogador ao fim de um tick: tudo que a renderização e o HUD leem
+ * Pode ser passado entre threads sem sincronização; o grid e as recargas dos feitiços são
+ * compartilhados com o retrato anterior enquanto não mudam
+ */
+public final class PlayerSnapshot {
+    private final int[][] grid;
+    private final int[] rowMasks;
+    private final long boardVersion;
+    private final PieceType pieceType;
+    private final int pieceRotation;
+    private final int pieceX;
+    private final int pieceY;
+    private final double fallOffset;
+    private final double fallRate;
+    private final long statsVersion;
+    private final int score;
+    private final int lines;
+    private final int level;
+    private final int mana;
+    private final int maxMana;
+    private final boolean shielded;
+    private final boolean gameOver;
+    private final double[] spellReadiness; // por índice em Player.SPELL_IDS
+    
+    private PlayerSnapshot(Player player, PlayerSnapshot previous) {
+        GameEngine engine = player.getEngine();
+        Board board = engine.getBoard();
+        boardVersion = board.getVersion();
+        if (previous != null && previous.boardVersion == boardVersion) {
+            grid = previous.grid;
+            rowMasks = previous.rowMasks;
+        } else {
+            grid = board.getGrid();
+            rowMasks = new int[Board.HEIGHT];
+            for (int y = 0; y < Board.HEIGHT; y++) {
+                rowMasks[y] = board.getRowMask(y);
+            }
+        }
+        
+        Piece piece = engine.getCurrentPiece();
+        pieceType = piece != null ? piece.getType() : null;
+        pieceRotation = piece != null ? piece.getRotation() : 0;
+        pieceX = engine.getCurrentX();
+        pieceY = engine.getCurrentY();
+        fallOffset = engine.getFallOffset(0.0);
+        boolean falling = piece != null && !engine.isPaused() && !engine.isGameOver()
+            && board.canPlacePiece(piece, pieceX, pieceY + 1);
+        fallRate = falling ? engine.getFallSpeed() * engine.getTimeSlowMultiplier() : 0.0;
+        
+        statsVersion = player.getStatsVersion();
+        score = engine.getScore();
+        lines = engine.getLines();
+        level = engine.getLevel();
+        mana = player.getMana();
+        maxMana = player.getMaxMana();
+        shielded = player.isShielded();
+        gameOver = engine.isGameOver();
+        
+        spellReadiness = captureReadiness(player, previous != null ? previous.spellReadiness : null);
+    }
+    
+    /**
+     * Recarga de cada feitiço; sem recarga em andamento o array anterior é reaproveitado
+     */
+    private static double[] captureReadiness(Player player, double[] previous) {
+        double[] readiness = previous;
+        for (int i = 0; i < Player.SPELL_IDS.length; i++) {
+            Spell spell = player.getSpell(i);
+            double value = 1.0;
+            if (spell != null) {
+                double remaining = spell.getRemainingCooldown() / spell.getCooldownSeconds();
+                value = Math.max(0.0, Math.min(1.0, 1.0 - remaining));
+            }
+            if (readiness == null) {
+                readiness = new double[Player.SPELL_IDS.length];
+            } else if (readiness == previous && readiness[i] != value) {
+                readiness = Arrays.copyOf(previous, previous.length);
+            }
+            readiness[i] = value;
+        }
+        return readiness;
+    }
+    
+    /**
+     * Captura o estado atual (na thread que atualiza o jogador)
+     * @param previous retrato anterior do mesmo jogador, para reaproveitar o grid (pode ser null)
+     */
+    public static PlayerSnapshot capture(Player player, PlayerSnapshot previous) {
+        return new PlayerSnapshot(player, previous);
+    }
+    
+    public int getCell(int x, int y) {
+        return grid[y][x];
+    }
+    
+    /**
+     * Bit x ligado se a célula (x, y) está ocupada
+     */
+    public int getRowMask(int y) {
+        return rowMasks[y];
+    }
+    
+    public long getBoardVersion() {
+        return boardVersion;
+    }
+    
+    /**
+     * Linhas do board que diferem de previous (bit y ligado); todas se previous é null
+     * Mesma versão do board significa grid compartilhado, então nada a comparar
+     */
+    public int changedRows(PlayerSnapshot previous) {
+        if (previous == null) {
+            return (1 << Board.HEIGHT) - 1;
+        }
+        if (previous.grid == grid) {
+            return 0;
+        }
+        int changed = 0;
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            if (rowMasks[y] != previous.rowMasks[y] || !Arrays.equals(grid[y], previous.grid[y])) {
+                changed |= 1 << y;
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * Tipo da peça atual (null se não há peça)
+     */
+    public PieceType getPieceType() {
+        return pieceType;
+    }
+    
+    /**
+     * Rotação da peça atual; a forma vem de RotationTable.isOccupied
+     */
+    public int getPieceRotation() {
+        return pieceRotation;
+    }
+    
+    public int getPieceX() {
+        return pieceX;
+    }
+    
+    public int getPieceY() {
+        return pieceY;
+    }
+    
+    /**
+     * Fração da próxima linha já percorrida pela peça, projetada sinceTick segundos à frente
+     */
+    public double getFallOffset(double sinceTick) {
+        return Math.min(1.0, fallOffset + sinceTick * fallRate);
+    }
+    
+    /**
+     * Ver Player.getStatsVersion
+     */
+    public long getStatsVersion() {
+        return statsVersion;
+    }
+    
+    public int getScore() {
+        return score;
+    }
+    
+    public int getLines() {
+        return lines;
+    }
+    
+    public int getLevel() {
+        return level;
+    }
+    
+    public int getMana() {
+        return mana;
+    }
+    
+    public int getMaxMana() {
+        return maxMana;
+    }
+    
+    public boolean isShielded() {
+        return shielded;
+    }
+    
+    public boolean isGameOver() {
+        return gameOver;
+    }
+    
+    /**
+     * Recarga do feitiço de índice spellIndex (Player.spellIndex) de 0 (acabou de ser
+     * lançado) a 1 (pronto)
+     */
+    public double getSpellReadiness(int spellIndex) {
+        return spellReadiness[spellIndex];
+    }
+    
+    public double getSpellReadiness(String spellId) {
+        int index = Player.spellIndex(spellId);
+        return index < 0 ? 1.0 : spellReadiness[index];
+    }
+}
@@ -0,0 +1,231 @@
+package com.arcane.tetris.engine;
+
+/**
+ * Tabela estática e imutável com os 4 estados de rotação de cada tipo de peça
+ * Calculada uma única vez, permite rotacionar trocando apenas o índice
+ * e testar colisões sem alocar nenhuma matriz
+ * Os arrays são compartilhados e só o pacote engine os recebe; fora dele a tabela é
+ * consultada por valor (isOccupied, distinctRotation), então ninguém consegue alterá-la
+ */
+public final class RotationTable {
+    public static final int ROTATIONS = 4;
+    
+    // Formas base das peças (estado inicial, rotação 0)
+    private static final int[][][] SHAPES = {
+        // I
+        {
+            {0, 0, 0, 0},
+            {1, 1, 1, 1},
+            {0, 0, 0, 0},
+            {0, 0, 0, 0}
+        },
+        // O
+        {
+            {1, 1},
+            {1, 1}
+        },
+        // T
+        {
+            {0, 1, 0},
+            {1, 1, 1},
+            {0, 0, 0}
+        },
+        // L
+        {
+            {0, 0, 1},
+            {1, 1, 1},
+            {0, 0, 0}
+        },
+        // J
+        {
+            {1, 0, 0},
+            {1, 1, 1},
+            {0, 0, 0}
+        },
+        // S
+        {
+            {0, 1, 1},
+            {1, 1, 0},
+            {0, 0, 0}
+        },
+        // Z
+        {
+            {1, 1, 0},
+            {0, 1, 1},
+            {0, 0, 0}
+        }
+    };
+    
+    // [tipo][rotação] -> matriz, máscaras por linha e offsets das células
+    private static final int[][][][] ROTATED_SHAPES;
+    private static final int[][][] ROW_MASKS;
+    private static final int[][][] CELL_X;
+    private static final int[][][] CELL_Y;
+    private static final int[][] DISTINCT_ROTATIONS;
+    
+    static {
+        int types = PieceType.values().length;
+        ROTATED_SHAPES = new int[types][ROTATIONS][][];
+        ROW_MASKS = new int[types][ROTATIONS][];
+        CELL_X = new int[types][ROTATIONS][];
+        CELL_Y = new int[types][ROTATIONS][];
+        DISTINCT_ROTATIONS = new int[types][];
+        
+        for (int type = 0; type < types; type++) {
+            int[][] shape = SHAPES[type];
+            for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+                ROTATED_SHAPES[type][rotation] = shape;
+                ROW_MASKS[type][rotation] = buildRowMasks(shape);
+                buildCells(shape, type, rotation);
+                shape = rotateMatrix(shape);
+            }
+            DISTINCT_ROTATIONS[type] = buildDistinctRotations(type);
+        }
+    }
+    
+    private RotationTable() {}
+    
+    /**
+     * Rotaciona uma matriz 90° no sentido horário
+     */
+    private static int[][] rotateMatrix(int[][] matrix) {
+        int rows = matrix.length;
+        int cols = matrix[0].length;
+        int[][] rotated = new int[cols][rows];
+        
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                rotated[j][rows - 1 - i] = matrix[i][j];
+            }
+        }
+        return rotated;
+    }
+    
+    private static int[] buildRowMasks(int[][] shape) {
+        int[] masks = new int[shape.length];
+        for (int row = 0; row < shape.length; row++) {
+            for (int col = 0; col < shape[row].length; col++) {
+                if (shape[row][col] != 0) {
+                    masks[row] |= 1 << col;
+                }
+            }
+        }
+        return masks;
+    }
+    
+    private static void buildCells(int[][] shape, int type, int rotation) {
+        int count = 0;
+        for (int[] row : shape) {
+            for (int cell : row) {
+                if (cell != 0) {
+                    count++;
+                }
+            }
+        }
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        int i = 0;
+        for (int row = 0; row < shape.length; row++) {
+            for (int col = 0; col < shape[row].length; col++) {
+                if (shape[row][col] != 0) {
+                    xs[i] = col;
+                    ys[i] = row;
+                    i++;
+                }
+            }
+        }
+        CELL_X[type][rotation] = xs;
+        CELL_Y[type][rotation] = ys;
+    }
+    
+    /**
+     * Rotações cuja ocupação difere das anteriores mesmo após translação
+     * (O tem 1, I/S/Z têm 2, T/L/J têm 4)
+     */
+    private static int[] buildDistinctRotations(int type) {
+        int[] distinct = new int[ROTATIONS];
+        int count = 0;
+        for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+            boolean duplicate = false;
+            for (int i = 0; i < count && !duplicate; i++) {
+                duplicate = sameFootprint(type, distinct[i], rotation);
+            }
+            if (!duplicate) {
+                distinct[count++] = rotation;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(distinct, 0, result, 0, count);
+        return result;
+    }
+    
+    private static boolean sameFootprint(int type, int a, int b) {
+        int[] ax = CELL_X[type][a], ay = CELL_Y[type][a];
+        int[] bx = CELL_X[type][b], by = CELL_Y[type][b];
+        // As células estão em ordem de varredura, então basta comparar o deslocamento de cada uma
+        int dx = bx[0] - ax[0];
+        int dy = by[0] - ay[0];
+        for (int i = 1; i < ax.length; i++) {
+            if (bx[i] - ax[i] != dx || by[i] - ay[i] != dy) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Matriz da peça numa rotação (compartilhada: não modificar)
+     */
+    static int[][] shape(PieceType type, int rotation) {
+        return ROTATED_SHAPES[type.ordinal()][rotation];
+    }
+    
+    /**
+     * Máscaras de bits por linha da matriz (bit c = coluna c ocupada; compartilhadas)
+     */
+    static int[] rowMasks(PieceType type, int rotation) {
+        return ROW_MASKS[type.ordinal()][rotation];
+    }
+    
+    /**
+     * Colunas das células ocupadas, relativas ao canto da matriz (compartilhadas)
+     */
+    static int[] cellX(PieceType type, int rotation) {
+        return CELL_X[type.ordinal()][rotation];
+    }
+    
+    /**
+     * Linhas das células ocupadas, relativas ao canto da matriz (compartilhadas)
+     */
+    static int[] cellY(PieceType type, int rotation) {
+        return CELL_Y[type.ordinal()][rotation];
+    }
+    
+    /**
+     * Se a célula (row, col) da matriz da peça está ocupada nessa rotação
+     */
+    public static boolean isOccupied(PieceType type, int rotation, int row, int col) {
+        return (ROW_MASKS[type.ordinal()][rotation][row] & (1 << col)) != 0;
+    }
+    
+    /**
+     * Quantas rotações distintas o tipo tem (as demais geram as mesmas jogadas deslocadas)
+     */
+    public static int distinctRotationCount(PieceType type) {
+        return DISTINCT_ROTATIONS[type.ordinal()].length;
+    }
+    
+    /**
+     * i-ésima rotação distinta do tipo, 0 <= i < distinctRotationCount
+     */
+    public static int distinctRotation(PieceType type, int i) {
+        return DISTINCT_ROTATIONS[type.ordinal()][i];
+    }
+    
+    /**
+     * Tamanho (lado) da matriz da peça
+     */
+    public static int size(PieceType type) {
+        return SHAPES[type.ordinal()].length;
+    }
+}
@@ -18,7 +18,7 @@ public class PushLineSpell extends Spell {
         if (targetEngine == null) {
             return; // Não faz sentido no single player
         }
-        targetEngine.getBoard().pushLine();
+        targetEngine.pushLine();
         startCooldown();
     }
 }
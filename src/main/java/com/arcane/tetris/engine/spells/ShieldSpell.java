@@ -34,16 +34,8 @@ public class ShieldSpell extends Spell {
         isActive = true;
         startCooldown();
         
-        // Remove o efeito após a duração
-        new Thread(() -> {
-            try {
-                Thread.sleep((long)(DURATION * 1000));
-                isActive = false;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                isActive = false;
-            }
-        }).start();
+        // Remove o efeito após a duração (tempo de jogo: pausa junto com a partida)
+        casterEngine.getEffects().schedule(DURATION, () -> isActive = false);
     }
     
     /**
@@ -20,22 +20,13 @@ public class TimeSlowSpell extends Spell {
         if (targetEngine == null) {
             return; // Não faz sentido no single player
         }
-        targetEngine.applyTimeSlow(SLOW_MULTIPLIER, DURATION);
+        targetEngine.applyTimeSlow(SLOW_MULTIPLIER, DURATION); // o alvo reverte sozinho após a duração
         isActive = true;
         startCooldown();
         
-        // Remove o efeito após a duração
-        new Thread(() -> {
-            try {
-                Thread.sleep((long)(DURATION * 1000));
-                if (targetEngine != null) {
-                    targetEngine.removeTimeSlow();
-                }
-                isActive = false;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        // Encerra o feitiço no tempo de jogo de quem lançou
+        GameEngine clock = casterEngine != null ? casterEngine : targetEngine;
+        clock.getEffects().schedule(DURATION, () -> isActive = false);
     }
 }
 
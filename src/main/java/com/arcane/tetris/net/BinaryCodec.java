@@ -0,0 +1,482 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.BoardView;
+import com.arcane.tetris.engine.GameEngine;
+import com.arcane.tetris.engine.Piece;
+import com.arcane.tetris.engine.PieceType;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec binário compacto para atualizações de estado (keyframes e deltas)
+ * Frame: MAGIC, versão, tamanho (varint) e payload. O grid vai como máscara de bits por linha
+ * seguida das cores das células ocupadas em nibbles; números vão como varints.
+ * Produz e consome o mesmo formato de Map que NetProtocol.createStateUpdate; encodeState e
+ * encodeDelta escrevem o mesmo frame direto das máscaras do tabuleiro, sem passar pelo Map
+ * Na leitura todo valor vindo da rede é validado (dimensões do tabuleiro, tipo de peça,
+ * índices de linha) antes de virar tamanho de array ou índice
+ */
+public final class BinaryCodec {
+    /** Primeiro byte de um frame binário (nunca inicia uma linha JSON) */
+    public static final int MAGIC = 0xB1;
+    public static final int VERSION = 1;
+    
+    // Tipos de mensagem no payload
+    private static final int MSG_STATE_UPDATE = 1;
+    private static final int MSG_STATE_DELTA = 2;
+    
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    
+    private BinaryCodec() {}
+    
+    /**
+     * Indica se o tipo de mensagem tem representação binária
+     */
+    public static boolean supports(String type) {
+        return NetProtocol.TYPE_STATE_UPDATE.equals(type) || NetProtocol.TYPE_STATE_DELTA.equals(type);
+    }
+    
+    /**
+     * Codifica a mensagem num frame completo (cabeçalho + payload)
+     */
+    public static byte[] encode(NetMessage message) {
+        if (!supports(message.getType())) {
+            throw new IllegalArgumentException("Tipo sem codificação binária: " + message.getType());
+        }
+        boolean delta = NetProtocol.TYPE_STATE_DELTA.equals(message.getType());
+        ByteWriter payload = new ByteWriter(64);
+        payload.writeByte(delta ? MSG_STATE_DELTA : MSG_STATE_UPDATE);
+        payload.writeString(message.getPlayerId());
+        writeState(payload, asMap(message.getData()), delta);
+        return frame(payload);
+    }
+    
+    /**
+     * Codifica um keyframe sem numeração lido direto do tabuleiro
+     */
+    public static byte[] encodeState(String playerId, BoardView board, GameEngine engine) {
+        return encodeState(playerId, board, engine, -1);
+    }
+    
+    /**
+     * Codifica um keyframe lido direto do tabuleiro; mesmo frame que encode(createStateUpdate(...))
+     * @param board visão de onde saem as linhas; contadores, altura, buracos e peça vêm do engine
+     * @param seq número do keyframe, ou -1 para keyframe sem numeração
+     */
+    public static byte[] encodeState(String playerId, BoardView board, GameEngine engine, int seq) {
+        ByteWriter payload = new ByteWriter(64);
+        payload.writeByte(MSG_STATE_UPDATE);
+        payload.writeString(playerId);
+        payload.writeVarint(seq + 1);
+        writeCounters(payload, engine);
+        payload.writeVarint(Board.HEIGHT);
+        payload.writeVarint(Board.WIDTH);
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            writeRow(payload, board, y);
+        }
+        writePiece(payload, engine.getCurrentPiece(), engine.getCurrentX(), engine.getCurrentY());
+        return frame(payload);
+    }
+    
+    /**
+     * Codifica um delta lido direto do tabuleiro; mesmo frame que encode(createStateDelta(...))
+     * @param changedRows índices das linhas alteradas, os primeiros count valem
+     */
+    public static byte[] encodeDelta(String playerId, BoardView board, GameEngine engine, int seq, int base,
+                                     int[] changedRows, int count) {
+        ByteWriter payload = new ByteWriter(32);
+        payload.writeByte(MSG_STATE_DELTA);
+        payload.writeString(playerId);
+        payload.writeVarint(seq + 1);
+        payload.writeVarint(base);
+        writeCounters(payload, engine);
+        payload.writeVarint(count);
+        payload.writeVarint(count == 0 ? 0 : Board.WIDTH);
+        for (int i = 0; i < count; i++) {
+            payload.writeVarint(changedRows[i]);
+            writeRow(payload, board, changedRows[i]);
+        }
+        writePiece(payload, engine.getCurrentPiece(), engine.getCurrentX(), engine.getCurrentY());
+        return frame(payload);
+    }
+    
+    private static byte[] frame(ByteWriter payload) {
+        ByteWriter frame = new ByteWriter(payload.size() + 8);
+        frame.writeByte(MAGIC);
+        frame.writeByte(VERSION);
+        frame.writeVarint(payload.size());
+        frame.writeBytes(payload.buffer(), payload.size());
+        return frame.toByteArray();
+    }
+    
+    private static void writeCounters(ByteWriter out, GameEngine engine) {
+        out.writeVarint(engine.getScore());
+        out.writeVarint(engine.getLines());
+        out.writeVarint(engine.getLevel());
+        out.writeVarint((int) engine.getBoard().getAggregateHeight());
+        out.writeVarint(engine.getBoard().getHoles());
+    }
+    
+    private static void writePiece(ByteWriter out, Piece piece, int x, int y) {
+        if (piece == null) {
+            out.writeByte(0);
+            return;
+        }
+        writePiece(out, piece.getType(), piece.getRotation(), x, y);
+    }
+    
+    /**
+     * Decodifica o payload de um frame da versão atual
+     * @throws ProtocolException se o payload é truncado ou tem valores fora do permitido
+     */
+    public static NetMessage decode(byte[] payload) throws ProtocolException {
+        ByteReader in = new ByteReader(payload);
+        int messageType = in.readByte();
+        if (messageType != MSG_STATE_UPDATE && messageType != MSG_STATE_DELTA) {
+            throw new ProtocolException("Tipo binário desconhecido: " + messageType);
+        }
+        boolean delta = messageType == MSG_STATE_DELTA;
+        String playerId = in.readString();
+        return new NetMessage(delta ? NetProtocol.TYPE_STATE_DELTA : NetProtocol.TYPE_STATE_UPDATE,
+                              playerId, readState(in, delta));
+    }
+    
+    private static void writeState(ByteWriter out, Map<String, Object> data, boolean delta) {
+        // seq + 1 (0 = keyframe sem numeração); deltas sempre têm seq e base
+        Object seq = data.get("seq");
+        out.writeVarint(seq == null ? 0 : intValue(seq) + 1);
+        if (delta) {
+            out.writeVarint(intValue(data.get("base")));
+        }
+        out.writeVarint(intValue(data.get("score")));
+        out.writeVarint(intValue(data.get("lines")));
+        out.writeVarint(intValue(data.get("level")));
+        
+        Map<String, Object> board = asMap(data.get("board"));
+        out.writeVarint(intValue(board.get("height")));
+        out.writeVarint(intValue(board.get("holes")));
+        if (delta) {
+            writeRows(out, board.get("changedRows"), board.get("rows"));
+        } else {
+            writeGrid(out, board.get("grid"));
+        }
+        
+        Map<String, Object> piece = asMap(data.get("currentPiece"));
+        if (piece == null) {
+            out.writeByte(0);
+            return;
+        }
+        writePiece(out, PieceType.valueOf((String) piece.get("type")), intValue(piece.get("rotation")),
+                   intValue(piece.get("x")), intValue(piece.get("y")));
+    }
+    
+    private static void writePiece(ByteWriter out, PieceType type, int rotation, int x, int y) {
+        // Tipo (1..7) nos 3 bits baixos e rotação nos 2 seguintes
+        out.writeByte((type.ordinal() + 1) | (rotation << 3));
+        out.writeZigZag(x);
+        out.writeZigZag(y);
+    }
+    
+    private static Map<String, Object> readState(ByteReader in, boolean delta) throws ProtocolException {
+        Map<String, Object> data = new HashMap<>();
+        int seq = in.readVarint();
+        if (seq != 0) {
+            data.put("seq", seq - 1);
+        }
+        if (delta) {
+            data.put("base", in.readVarint());
+        }
+        data.put("score", in.readVarint());
+        data.put("lines", in.readVarint());
+        data.put("level", in.readVarint());
+        
+        Map<String, Object> board = new HashMap<>();
+        board.put("height", in.readVarint());
+        board.put("holes", in.readVarint());
+        if (delta) {
+            readRows(in, board);
+        } else {
+            board.put("grid", readGrid(in));
+        }
+        data.put("board", board);
+        
+        int packed = in.readByte();
+        if (packed != 0) {
+            int type = packed & 0x7;
+            int rotation = packed >>> 3;
+            if (type < 1 || type > PIECE_TYPES.length || rotation > 3) {
+                throw new ProtocolException("Peça inválida: " + packed);
+            }
+            Map<String, Object> piece = new HashMap<>();
+            piece.put("type", PIECE_TYPES[type - 1].name());
+            piece.put("rotation", rotation);
+            piece.put("x", in.readZigZag());
+            piece.put("y", in.readZigZag());
+            data.put("currentPiece", piece);
+        }
+        return data;
+    }
+    
+    /**
+     * Linhas como máscara (bit x = coluna x) seguida das cores ocupadas, dois nibbles por byte
+     * Aceita int[][] (estado local) ou listas (mensagem vinda do JSON)
+     */
+    private static void writeGrid(ByteWriter out, Object grid) {
+        int rows = gridRows(grid);
+        int width = rows == 0 ? 0 : gridWidth(grid, 0);
+        out.writeVarint(rows);
+        out.writeVarint(width);
+        for (int y = 0; y < rows; y++) {
+            writeRow(out, grid, y, width);
+        }
+    }
+    
+    private static int[][] readGrid(ByteReader in) throws ProtocolException {
+        int rows = in.readBounded(Board.HEIGHT, "linhas");
+        int width = in.readBounded(Board.WIDTH, "largura");
+        int[][] grid = new int[rows][width];
+        for (int y = 0; y < rows; y++) {
+            readRow(in, grid[y]);
+        }
+        return grid;
+    }
+    
+    /**
+     * Linhas de um delta: quantidade, largura e, para cada uma, índice seguido do conteúdo
+     */
+    private static void writeRows(ByteWriter out, Object changedRows, Object rows) {
+        int count = gridRows(rows);
+        int width = count == 0 ? 0 : gridWidth(rows, 0);
+        out.writeVarint(count);
+        out.writeVarint(width);
+        for (int i = 0; i < count; i++) {
+            out.writeVarint(changedRows instanceof int[]
+                ? ((int[]) changedRows)[i] : intValue(((List<?>) changedRows).get(i)));
+            writeRow(out, rows, i, width);
+        }
+    }
+    
+    private static void readRows(ByteReader in, Map<String, Object> board) throws ProtocolException {
+        int count = in.readBounded(Board.HEIGHT, "linhas alteradas");
+        int width = in.readBounded(Board.WIDTH, "largura");
+        int[] changedRows = new int[count];
+        int[][] rows = new int[count][width];
+        for (int i = 0; i < count; i++) {
+            changedRows[i] = in.readBounded(Board.HEIGHT - 1, "índice de linha");
+            readRow(in, rows[i]);
+        }
+        board.put("changedRows", changedRows);
+        board.put("rows", rows);
+    }
+    
+    private static void writeRow(ByteWriter out, Object grid, int y, int width) {
+        int mask = 0;
+        for (int x = 0; x < width; x++) {
+            if (gridCell(grid, y, x) != 0) {
+                mask |= 1 << x;
+            }
+        }
+        out.writeVarint(mask);
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            out.writeNibble(gridCell(grid, y, Integer.numberOfTrailingZeros(bits)));
+        }
+        out.flushNibble();
+    }
+    
+    /**
+     * Mesma codificação de linha, com máscara e cores lidas do tabuleiro
+     */
+    private static void writeRow(ByteWriter out, BoardView board, int y) {
+        int mask = board.getRowMask(y);
+        out.writeVarint(mask);
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            out.writeNibble(board.getCell(Integer.numberOfTrailingZeros(bits), y));
+        }
+        out.flushNibble();
+    }
+    
+    private static void readRow(ByteReader in, int[] row) throws ProtocolException {
+        int mask = in.readVarint();
+        if ((mask >>> row.length) != 0) {
+            throw new ProtocolException("Máscara de linha maior que a largura: " + mask);
+        }
+        int packed = 0;
+        boolean high = false;
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            if (!high) {
+                packed = in.readByte();
+            }
+            row[Integer.numberOfTrailingZeros(bits)] = high ? packed >>> 4 : packed & 0xF;
+            high = !high;
+        }
+    }
+    
+    private static int gridRows(Object grid) {
+        return grid instanceof int[][] ? ((int[][]) grid).length : ((List<?>) grid).size();
+    }
+    
+    private static int gridWidth(Object grid, int y) {
+        return grid instanceof int[][] ? ((int[][]) grid)[y].length : ((List<?>) ((List<?>) grid).get(y)).size();
+    }
+    
+    private static int gridCell(Object grid, int y, int x) {
+        if (grid instanceof int[][]) {
+            return ((int[][]) grid)[y][x];
+        }
+        return intValue(((List<?>) ((List<?>) grid).get(y)).get(x));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+    
+    private static int intValue(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+    
+    /**
+     * Buffer de escrita crescente
+     */
+    private static final class ByteWriter {
+        private byte[] buf;
+        private int size;
+        private int pendingNibble = -1;
+        
+        ByteWriter(int capacity) {
+            this.buf = new byte[capacity];
+        }
+        
+        void writeByte(int b) {
+            if (size == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[size++] = (byte) b;
+        }
+        
+        void writeBytes(byte[] bytes, int length) {
+            for (int i = 0; i < length; i++) {
+                writeByte(bytes[i]);
+            }
+        }
+        
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+        
+        void writeZigZag(int value) {
+            writeVarint((value << 1) ^ (value >> 31));
+        }
+        
+        /**
+         * Cores em pares: a primeira no nibble baixo, a segunda no alto
+         */
+        void writeNibble(int value) {
+            if (value < 0 || value > 0xF) {
+                throw new IllegalArgumentException("Cor fora do intervalo de um nibble: " + value);
+            }
+            if (pendingNibble < 0) {
+                pendingNibble = value;
+            } else {
+                writeByte(pendingNibble | (value << 4));
+                pendingNibble = -1;
+            }
+        }
+        
+        void flushNibble() {
+            if (pendingNibble >= 0) {
+                writeByte(pendingNibble);
+                pendingNibble = -1;
+            }
+        }
+        
+        void writeString(String value) {
+            byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            writeBytes(bytes, bytes.length);
+        }
+        
+        byte[] buffer() {
+            return buf;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+    }
+    
+    /**
+     * Leitura sequencial de um payload
+     */
+    private static final class ByteReader {
+        private final byte[] buf;
+        private int pos;
+        
+        ByteReader(byte[] buf) {
+            this.buf = buf;
+        }
+        
+        int readByte() throws ProtocolException {
+            if (pos >= buf.length) {
+                throw new ProtocolException("Payload binário truncado");
+            }
+            return buf[pos++] & 0xFF;
+        }
+        
+        /**
+         * Varint de até 32 bits (o 5º byte só pode carregar os 4 bits restantes)
+         */
+        int readVarint() throws ProtocolException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                if (shift == 28 && b > 0x0F) {
+                    throw new ProtocolException("Varint inválido");
+                }
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new ProtocolException("Varint inválido");
+        }
+        
+        /**
+         * Varint que vai virar tamanho ou índice: precisa estar em 0..max
+         */
+        int readBounded(int max, String what) throws ProtocolException {
+            int value = readVarint();
+            if (value < 0 || value > max) {
+                throw new ProtocolException("Valor fora do intervalo (" + what + "): " + value);
+            }
+            return value;
+        }
+        
+        int readZigZag() throws ProtocolException {
+            int raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+        
+        String readString() throws ProtocolException {
+            int length = readVarint();
+            if (length < 0 || length > buf.length - pos) {
+                throw new ProtocolException("Payload binário truncado");
+            }
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.arcane.tetris.net;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool limitado de ByteBuffers diretos de tamanho fixo, compartilhado pelos event loops
+ * Buffers diretos evitam a cópia extra que o JDK faz ao escrever buffers do heap no socket;
+ * o pool evita alocá-los (caro) a cada leitura
+ */
+final class BufferPool {
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final int bufferSize;
+    private final int maxPooled;
+    
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+    
+    /**
+     * Retorna um buffer limpo (do pool ou recém-alocado se o pool está vazio)
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return buffer;
+    }
+    
+    /**
+     * Devolve um buffer; acima do limite ele é descartado para o GC
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || !buffer.isDirect()) {
+            return;
+        }
+        if (pooled.incrementAndGet() <= maxPooled) {
+            buffer.clear();
+            free.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+    
+    int getBufferSize() {
+        return bufferSize;
+    }
+    
+    int getPooledCount() {
+        return pooled.get();
+    }
+}
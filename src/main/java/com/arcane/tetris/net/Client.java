@@ -1,25 +1,67 @@
 package com.arcane.tetris.net;
 
+import com.arcane.tetris.engine.GameEngine;
+import com.arcane.tetris.util.Jmx;
 import com.arcane.tetris.util.Logger;
 import java.io.*;
 import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import javax.management.ObjectName;
 
 /**
  * Cliente TCP para conexão com servidor
+ * Com setBatching as mensagens de um tick saem num único write, e um estado ainda não
+ * enviado é substituído pelo seguinte
+ * Opcionalmente, PINGs periódicos com timestamp medem RTT e jitter (setPingInterval,
+ * getMetrics), e as métricas são expostas por JMX (setJmxEnabled)
  */
 public class Client {
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = 16;  // um tick a 60 Hz
+    public static final int DEFAULT_MAX_BATCH_BYTES = 8 * 1024;
+    public static final int DEFAULT_PING_INTERVAL_MS = 1000;  // sugerido para setPingInterval
+    
     private Socket socket;
-    private BufferedReader in;
-    private PrintWriter out;
+    private FrameReader in;
+    private OutputStream out;
+    private volatile String codec = NetProtocol.CODEC_JSON; // trocado pelo CONNECT_ACK do servidor
+    private volatile CountDownLatch connectAck = new CountDownLatch(1);
     private String serverHost;
     private int serverPort;
     private String playerId;
-    private boolean connected;
+    private String room = NetProtocol.DEFAULT_ROOM;
+    private volatile boolean connected;
     private Consumer<NetMessage> messageHandler;
     private Thread receiveThread;
+    private final boolean virtualThreads;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final StateDeltaEncoder stateEncoder = new StateDeltaEncoder();
+    private final Map<String, StateDeltaDecoder> remoteStates = new ConcurrentHashMap<>();
+    private OutboundBatcher batcher;  // null: cada mensagem é escrita na hora
+    private int flushIntervalMillis;
+    private int maxBatchBytes;
+    private Thread flushThread;
+    private final AtomicLong writes = new AtomicLong();
+    private int pingIntervalMillis;  // 0: sem PINGs
+    private Thread pingThread;
+    private final ClientMetrics metrics = new ClientMetrics();
+    private boolean jmxEnabled;
+    private ObjectName metricsName;
     
     public Client(String serverHost, int serverPort, String playerId) {
+        this(serverHost, serverPort, playerId, false);
+    }
+    
+    /**
+     * @param virtualThreads recebe as mensagens numa thread virtual em vez de uma thread de plataforma
+     */
+    public Client(String serverHost, int serverPort, String playerId, boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
         this.serverHost = serverHost;
         this.serverPort = serverPort;
         this.playerId = playerId;
@@ -32,17 +74,30 @@ public class Client {
     public boolean connect() {
         try {
             socket = new Socket(serverHost, serverPort);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            out = new PrintWriter(socket.getOutputStream(), true);
+            in = new FrameReader(new BufferedInputStream(socket.getInputStream()));
+            out = new BufferedOutputStream(socket.getOutputStream());
+            connectAck = new CountDownLatch(1);
             connected = true;
             
             // Envia mensagem de conexão
-            NetMessage connectMsg = NetProtocol.createConnectMessage(playerId, "Player");
+            NetMessage connectMsg = NetProtocol.createConnectMessage(playerId, "Player", room);
             send(connectMsg);
+            flush();
             
             // Inicia thread de recebimento
-            receiveThread = new Thread(this::receiveLoop);
-            receiveThread.start();
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+            receiveThread = builder.name("client-" + playerId).start(this::receiveLoop);
+            if (batcher != null) {
+                Thread.Builder flusher = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+                flushThread = flusher.name("client-flush-" + playerId).start(this::flushLoop);
+            }
+            if (pingIntervalMillis > 0) {
+                Thread.Builder pinger = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+                pingThread = pinger.name("client-ping-" + playerId).start(this::pingLoop);
+            }
+            if (jmxEnabled) {
+                metricsName = Jmx.register("type=Client,player=" + ObjectName.quote(playerId), metrics);
+            }
             
             Logger.info("Conectado ao servidor " + serverHost + ":" + serverPort);
             return true;
@@ -52,18 +107,34 @@ public class Client {
         }
     }
     
+    /**
+     * Espera o CONNECT_ACK do servidor; depois dele o codec negociado já vale para os envios
+     * @return false se o ACK não chegou dentro do prazo
+     */
+    public boolean awaitConnectAck(long timeoutMillis) throws InterruptedException {
+        return connectAck.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    
     /**
      * Loop de recebimento de mensagens
      */
     private void receiveLoop() {
         try {
-            String line;
-            while ((line = in.readLine()) != null && connected) {
-                NetMessage message = NetProtocol.deserialize(line);
-                if (messageHandler != null) {
+            NetMessage message;
+            while ((message = in.read()) != null && connected) {
+                if (NetProtocol.TYPE_CONNECT_ACK.equals(message.getType())) {
+                    codec = NetProtocol.CODEC_BINARY.equals(ackCodec(message))
+                        ? NetProtocol.CODEC_BINARY : NetProtocol.CODEC_JSON;
+                    connectAck.countDown();
+                    continue;
+                }
+                message = handleProtocolMessage(message);
+                if (message != null && messageHandler != null) {
                     messageHandler.accept(message);
                 }
             }
+        } catch (ProtocolException e) {
+            Logger.warn("Frame inválido do servidor, desconectando: " + e.getMessage());
         } catch (IOException e) {
             if (connected) {
                 Logger.error("Erro ao receber mensagem", e);
@@ -74,21 +145,188 @@ public class Client {
     }
     
     /**
-     * Envia mensagem ao servidor
+     * Trata RESYNC e reconstrói deltas; retorna a mensagem para o handler
+     * (deltas chegam como STATE_UPDATE completo) ou null se não há nada a repassar
+     */
+    private NetMessage handleProtocolMessage(NetMessage message) {
+        switch (message.getType()) {
+            case NetProtocol.TYPE_RESYNC:
+                Object data = message.getData();
+                if (data instanceof Map && playerId.equals(((Map<?, ?>) data).get("target"))) {
+                    stateEncoder.requestKeyframe();
+                }
+                return null;
+            
+            case NetProtocol.TYPE_PONG:
+                Object pong = message.getData();
+                if (pong instanceof Map && ((Map<?, ?>) pong).get("t") instanceof Number) {
+                    metrics.recordRtt(System.nanoTime() - ((Number) ((Map<?, ?>) pong).get("t")).longValue());
+                }
+                return null;
+            
+            case NetProtocol.TYPE_STATE_UPDATE:
+            case NetProtocol.TYPE_STATE_DELTA:
+                String sender = message.getPlayerId();
+                StateDeltaDecoder decoder = remoteStates.computeIfAbsent(sender, id -> new StateDeltaDecoder());
+                NetMessage full = decoder.apply(message);
+                if (full == null && decoder.markResyncRequested()) {
+                    Logger.debug("Lacuna no estado de " + sender + ", pedindo keyframe");
+                    send(NetProtocol.createResync(playerId, sender));
+                }
+                return full;
+            
+            default:
+                return message;
+        }
+    }
+    
+    /**
+     * Envia o estado do jogo como keyframe ou delta, conforme o StateDeltaEncoder
+     */
+    public void sendState(GameEngine engine) {
+        if (batcher == null && NetProtocol.CODEC_BINARY.equals(codec)) {
+            // Sem batching o frame binário sai direto do tabuleiro, sem montar o Map
+            if (out != null && connected) {
+                write(stateEncoder.nextFrame(playerId, engine));
+            }
+            return;
+        }
+        send(stateEncoder.next(playerId, engine));
+    }
+    
+    /**
+     * Envia mensagem ao servidor (acumulada até o próximo flush se o batching está ativo)
      */
     public void send(NetMessage message) {
-        if (out != null && connected) {
-            String json = NetProtocol.serialize(message);
-            out.println(json);
+        if (out == null || !connected) {
+            return;
+        }
+        if (batcher == null) {
+            write(NetProtocol.encodeFrame(message, codec));
+        } else if (batcher.add(message, codec) >= maxBatchBytes) {
+            flush();
         }
     }
     
+    /**
+     * Escreve de uma vez o que está acumulado; chamar no fim do tick evita esperar o intervalo
+     */
+    public void flush() {
+        if (batcher != null) {
+            byte[] batch = batcher.drain();
+            if (batch != null) {
+                write(batch);
+            }
+        }
+    }
+    
+    private void write(byte[] bytes) {
+        if (out == null || !connected) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            out.write(bytes);
+            out.flush();
+            writes.incrementAndGet();
+        } catch (IOException e) {
+            Logger.error("Erro ao enviar mensagem", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * PINGs vão direto ao socket, sem esperar o lote, para não inflar o RTT
+     */
+    private void pingLoop() {
+        try {
+            while (connected) {
+                Thread.sleep(pingIntervalMillis);
+                write(NetProtocol.encodeFrame(NetProtocol.createPing(playerId), NetProtocol.CODEC_JSON));
+                metrics.pingSent();
+            }
+        } catch (InterruptedException e) {
+            // Desconectado
+        }
+    }
+    
+    private void flushLoop() {
+        try {
+            while (connected) {
+                Thread.sleep(flushIntervalMillis);
+                flush();
+            }
+        } catch (InterruptedException e) {
+            // Desconectado
+        }
+    }
+    
+    /**
+     * Ativa o envio em lotes (antes de connect): o lote é escrito a cada flushIntervalMillis,
+     * ao passar de maxBatchBytes ou em flush(); intervalo <= 0 desativa
+     */
+    public void setBatching(int flushIntervalMillis, int maxBatchBytes) {
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchBytes = Math.max(1, maxBatchBytes);
+        this.batcher = flushIntervalMillis > 0 ? new OutboundBatcher() : null;
+    }
+    
+    /**
+     * Intervalo entre PINGs (antes de connect); <= 0, o padrão, desativa a medição de RTT
+     */
+    public void setPingInterval(int pingIntervalMillis) {
+        this.pingIntervalMillis = pingIntervalMillis;
+    }
+    
+    /**
+     * Registra as métricas como MBean ao conectar (desligado por padrão, já que vários
+     * clientes no mesmo processo, como em testes de carga, registrariam um MBean cada)
+     */
+    public void setJmxEnabled(boolean jmxEnabled) {
+        this.jmxEnabled = jmxEnabled;
+    }
+    
+    public ClientMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Writes feitos no socket (cada um um flush do stream)
+     */
+    public long getWriteCount() {
+        return writes.get();
+    }
+    
+    /**
+     * Estados substituídos no lote antes do envio
+     */
+    public int getCoalescedStates() {
+        return batcher == null ? 0 : batcher.getCoalescedCount();
+    }
+    
+    private static Object ackCodec(NetMessage ack) {
+        Object data = ack.getData();
+        return data instanceof Map ? ((Map<?, ?>) data).get("codec") : null;
+    }
+    
     /**
      * Desconecta do servidor
      */
     public void disconnect() {
+        if (connected) {
+            flush();
+        }
         connected = false;
         try {
+            if (flushThread != null) {
+                flushThread.interrupt();
+            }
+            if (pingThread != null) {
+                pingThread.interrupt();
+            }
+            Jmx.unregister(metricsName);
+            metricsName = null;
             if (socket != null) {
                 socket.close();
             }
@@ -109,6 +347,24 @@ public class Client {
         return connected;
     }
     
+    /**
+     * Codec em uso no envio (JSON até o servidor confirmar outro)
+     */
+    public String getCodec() {
+        return codec;
+    }
+    
+    /**
+     * Sala (partida) em que o cliente entra ao conectar
+     */
+    public void setRoom(String room) {
+        this.room = room;
+    }
+    
+    public String getRoom() {
+        return room;
+    }
+    
     public String getPlayerId() {
         return playerId;
     }
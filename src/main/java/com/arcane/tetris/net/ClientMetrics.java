@@ -0,0 +1,86 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.util.LatencyHistogram;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RTT e jitter da conexão de um cliente, medidos pelos PINGs com timestamp
+ * Jitter é a diferença absoluta entre dois RTTs consecutivos
+ */
+public final class ClientMetrics implements ClientMetricsMBean {
+    private final LatencyHistogram rtt = new LatencyHistogram();
+    private final LatencyHistogram jitter = new LatencyHistogram();
+    private final AtomicLong pingsSent = new AtomicLong();
+    private volatile long lastRtt = -1;
+    
+    void pingSent() {
+        pingsSent.incrementAndGet();
+    }
+    
+    /**
+     * Registra o RTT de um PONG (só a thread de recebimento chama)
+     */
+    void recordRtt(long nanos) {
+        rtt.record(nanos);
+        if (lastRtt >= 0) {
+            jitter.record(Math.abs(nanos - lastRtt));
+        }
+        lastRtt = nanos;
+    }
+    
+    public LatencyHistogram getRttHistogram() {
+        return rtt;
+    }
+    
+    public LatencyHistogram getJitterHistogram() {
+        return jitter;
+    }
+    
+    @Override
+    public long getPingsSent() {
+        return pingsSent.get();
+    }
+    
+    @Override
+    public long getPongsReceived() {
+        return rtt.getTotalCount();
+    }
+    
+    @Override
+    public double getRttP50Millis() {
+        return rtt.getValueAtPercentile(50) / 1_000_000.0;
+    }
+    
+    @Override
+    public double getRttP99Millis() {
+        return rtt.getValueAtPercentile(99) / 1_000_000.0;
+    }
+    
+    @Override
+    public double getRttMaxMillis() {
+        return rtt.getMax() / 1_000_000.0;
+    }
+    
+    @Override
+    public double getJitterP99Millis() {
+        return jitter.getValueAtPercentile(99) / 1_000_000.0;
+    }
+    
+    @Override
+    public String getRttSummary() {
+        return rtt.summary(1_000_000.0, "ms");
+    }
+    
+    @Override
+    public String getJitterSummary() {
+        return jitter.summary(1_000_000.0, "ms");
+    }
+    
+    @Override
+    public void reset() {
+        rtt.reset();
+        jitter.reset();
+        pingsSent.set(0);
+        lastRtt = -1;
+    }
+}
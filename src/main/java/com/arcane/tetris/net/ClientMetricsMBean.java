@@ -0,0 +1,24 @@
+package com.arcane.tetris.net;
+
+/**
+ * Métricas de um cliente expostas por JMX (com.arcane.tetris:type=Client,player=id)
+ */
+public interface ClientMetricsMBean {
+    long getPingsSent();
+    
+    long getPongsReceived();
+    
+    double getRttP50Millis();
+    
+    double getRttP99Millis();
+    
+    double getRttMaxMillis();
+    
+    double getJitterP99Millis();
+    
+    String getRttSummary();
+    
+    String getJitterSummary();
+    
+    void reset();
+}
@@ -0,0 +1,84 @@
+package com.arcane.tetris.net;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro das conexões do servidor: conexões abertas, jogadores por id e salas por nome
+ * Tudo em mapas concorrentes; o repasse percorre o snapshot copy-on-write da sala sem lock,
+ * enquanto entradas e saídas só disputam a chave da própria sala
+ */
+final class ClientRegistry {
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Connection> players = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
+    
+    void add(Connection connection) {
+        connections.add(connection);
+    }
+    
+    /**
+     * Remove a conexão de tudo (sala, jogador e conexões abertas)
+     */
+    void remove(Connection connection) {
+        connections.remove(connection);
+        leave(connection);
+        String playerId = connection.getPlayerId();
+        if (playerId != null) {
+            players.remove(playerId, connection);
+        }
+    }
+    
+    /**
+     * Associa o id do jogador à conexão (um reconectado substitui a conexão anterior)
+     */
+    void bindPlayer(String playerId, Connection connection) {
+        connection.setPlayerId(playerId);
+        players.put(playerId, connection);
+    }
+    
+    Connection player(String playerId) {
+        return playerId == null ? null : players.get(playerId);
+    }
+    
+    /**
+     * Coloca a conexão numa sala, saindo da anterior; a sala é criada no primeiro membro
+     */
+    Room join(Connection connection, String name) {
+        leave(connection);
+        Room room = rooms.compute(name, (key, existing) -> {
+            Room target = existing != null ? existing : new Room(key);
+            target.join(connection);
+            return target;
+        });
+        connection.setRoom(room);
+        if (!connection.isConnected()) {
+            leave(connection); // Caiu durante a entrada: remove() já passou e não a tiraria da sala
+        }
+        return room;
+    }
+    
+    /**
+     * Tira a conexão da sala; a sala vazia é removida
+     * A saída acontece sob a chave da sala, então não corre com uma entrada simultânea
+     */
+    void leave(Connection connection) {
+        Room room = connection.getRoom();
+        if (room == null) {
+            return;
+        }
+        connection.setRoom(null);
+        rooms.compute(room.getName(), (key, existing) -> {
+            room.leave(connection);
+            return existing == null || existing.isEmpty() ? null : existing;
+        });
+    }
+    
+    int connectionCount() {
+        return connections.size();
+    }
+    
+    int roomCount() {
+        return rooms.size();
+    }
+}
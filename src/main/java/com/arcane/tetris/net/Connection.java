@@ -0,0 +1,120 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.util.Logger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conexão de um cliente no servidor, independente do modelo de I/O (bloqueante ou NIO)
+ * O Server trata as mensagens e usa send para responder e repassar
+ * A fila de saída é limitada a maxQueued frames; ao enchê-la vale a SlowConsumerPolicy
+ */
+abstract class Connection {
+    private volatile String playerId;
+    private volatile String codec = NetProtocol.CODEC_JSON;
+    private volatile Room room;
+    private volatile OutboundFrame pong;
+    private final int maxQueued;
+    private final Server.SlowConsumerPolicy policy;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    
+    Connection(int maxQueued, Server.SlowConsumerPolicy policy) {
+        this.maxQueued = maxQueued;
+        this.policy = policy;
+    }
+    
+    /**
+     * Enfileira um frame já codificado; não bloqueia à espera de um consumidor lento
+     */
+    abstract void send(OutboundFrame frame);
+    
+    abstract boolean isConnected();
+    
+    /**
+     * Fecha a conexão e avisa o servidor (chamadas repetidas são ignoradas)
+     */
+    abstract void disconnect();
+    
+    /**
+     * Reserva um lugar na fila de saída; retorna false se o frame deve ser descartado
+     * Com DROP_DELTAS a fila cheia descarta deltas, mas keyframes e mensagens de controle
+     * ainda entram até o dobro do limite; além disso (ou com DISCONNECT) a conexão é fechada
+     */
+    final boolean admit(OutboundFrame frame) {
+        int size = queued.incrementAndGet();
+        if (size <= maxQueued) {
+            return true;
+        }
+        if (policy == Server.SlowConsumerPolicy.DROP_DELTAS) {
+            if (frame.isDroppable()) {
+                queued.decrementAndGet();
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (size <= maxQueued * 2) {
+                return true;
+            }
+        }
+        queued.decrementAndGet();
+        dropped.incrementAndGet();
+        Logger.warn("Consumidor lento desconectado: " + playerId + " (" + (size - 1) + " frames na fila)");
+        disconnect();
+        return false;
+    }
+    
+    /**
+     * Libera da fila frames já escritos no socket
+     */
+    final void sent(int frames) {
+        queued.addAndGet(-frames);
+    }
+    
+    int getQueuedFrames() {
+        return queued.get();
+    }
+    
+    long getDroppedFrames() {
+        return dropped.get();
+    }
+    
+    /**
+     * PONG deste jogador, codificado uma vez e reenviado a cada PING sem timestamp
+     */
+    OutboundFrame pongFrame() {
+        OutboundFrame frame = pong;
+        if (frame == null) {
+            frame = OutboundFrame.of(NetProtocol.createPong(playerId, null), NetProtocol.CODEC_JSON);
+            pong = frame;
+        }
+        return frame;
+    }
+    
+    String getPlayerId() {
+        return playerId;
+    }
+    
+    void setPlayerId(String playerId) {
+        this.playerId = playerId;
+        this.pong = null;
+    }
+    
+    String getCodec() {
+        return codec;
+    }
+    
+    void setCodec(String codec) {
+        this.codec = codec;
+    }
+    
+    /**
+     * Sala atual (null até o CONNECT)
+     */
+    Room getRoom() {
+        return room;
+    }
+    
+    void setRoom(Room room) {
+        this.room = room;
+    }
+}
@@ -0,0 +1,136 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.util.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Versão incremental do FrameReader para I/O não bloqueante
+ * Recebe os bytes na ordem em que chegam e devolve as mensagens completas;
+ * só guarda memória enquanto há um frame incompleto
+ */
+class FrameDecoder {
+    /** Maior frame aceito (binário ou linha JSON); acima disso a conexão é considerada inválida */
+    static final int MAX_FRAME_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 512;
+    
+    private byte[] buf;
+    private int size;
+    private int scanned; // bytes da linha JSON pendente já percorridos sem achar '\n'
+    
+    /**
+     * Consome os bytes restantes de src e adiciona as mensagens completas em out
+     * @throws ProtocolException se um frame excede MAX_FRAME_SIZE ou é malformado
+     */
+    void decode(ByteBuffer src, List<NetMessage> out) throws IOException {
+        append(src);
+        int pos = 0;
+        while (pos < size) {
+            int consumed = (buf[pos] & 0xFF) == BinaryCodec.MAGIC
+                ? decodeBinary(pos, out) : decodeLine(pos, out);
+            if (consumed == 0) {
+                break;
+            }
+            pos += consumed;
+        }
+        compact(pos);
+    }
+    
+    /**
+     * Retorna os bytes consumidos (0 se o frame ainda está incompleto)
+     */
+    private int decodeBinary(int start, List<NetMessage> out) throws IOException {
+        if (size - start < 3) {
+            return 0;
+        }
+        int version = buf[start + 1] & 0xFF;
+        int length = 0;
+        int pos = start + 2;
+        for (int shift = 0; ; shift += 7) {
+            if (pos >= size) {
+                return 0;
+            }
+            if (shift >= 35) {
+                throw new ProtocolException("Tamanho de frame inválido");
+            }
+            int b = buf[pos++] & 0xFF;
+            if (shift == 28 && b > 0x0F) {
+                throw new ProtocolException("Tamanho de frame inválido"); // 5º byte só tem 4 bits úteis
+            }
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new ProtocolException("Frame binário muito grande: " + length);
+        }
+        if (size - pos < length) {
+            return 0;
+        }
+        if (version == BinaryCodec.VERSION) {
+            out.add(BinaryCodec.decode(Arrays.copyOfRange(buf, pos, pos + length)));
+        } else {
+            Logger.warn("Frame binário de versão desconhecida ignorado: " + version);
+        }
+        return pos + length - start;
+    }
+    
+    /**
+     * Uma linha incompleta volta para o início do buffer e é retomada de onde a busca parou,
+     * então cada byte é percorrido uma vez mesmo quando a linha chega em muitas leituras
+     */
+    private int decodeLine(int start, List<NetMessage> out) throws IOException {
+        int end = start + scanned;
+        while (end < size && buf[end] != '\n') {
+            end++;
+        }
+        if (end == size) {
+            if (size - start > MAX_FRAME_SIZE) {
+                throw new ProtocolException("Linha JSON muito grande");
+            }
+            scanned = end - start;
+            return 0;
+        }
+        scanned = 0;
+        int lineEnd = end > start && buf[end - 1] == '\r' ? end - 1 : end;
+        if (lineEnd > start) {
+            out.add(NetProtocol.deserializeFrame(new String(buf, start, lineEnd - start, StandardCharsets.UTF_8)));
+        }
+        return end + 1 - start;
+    }
+    
+    private void append(ByteBuffer src) {
+        int n = src.remaining();
+        if (buf == null) {
+            buf = new byte[Math.max(INITIAL_CAPACITY, n)];
+        } else if (size + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + n));
+        }
+        src.get(buf, size, n);
+        size += n;
+    }
+    
+    /**
+     * Move o frame incompleto para o início; sem pendências, libera o buffer
+     * (conexões ociosas não retêm memória)
+     */
+    private void compact(int consumed) {
+        size -= consumed;
+        if (size == 0) {
+            buf = null;
+        } else if (consumed > 0) {
+            System.arraycopy(buf, consumed, buf, 0, size);
+        }
+    }
+    
+    /**
+     * Bytes de um frame incompleto aguardando o restante
+     */
+    int pendingBytes() {
+        return size;
+    }
+}
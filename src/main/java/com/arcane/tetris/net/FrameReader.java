@@ -0,0 +1,100 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.util.Logger;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lê mensagens de um stream que mistura linhas JSON e frames binários
+ * Um frame binário começa com BinaryCodec.MAGIC; qualquer outro byte inicia uma linha JSON
+ * Aplica os mesmos limites do FrameDecoder: frames acima de MAX_FRAME_SIZE ou malformados
+ * geram ProtocolException
+ */
+public class FrameReader {
+    private final InputStream in;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+    
+    public FrameReader(InputStream in) {
+        this.in = in;
+    }
+    
+    /**
+     * Lê a próxima mensagem; retorna null no fim do stream
+     * Frames de versão desconhecida são descartados
+     * @throws ProtocolException se o frame é malformado (a conexão deve ser encerrada)
+     */
+    public NetMessage read() throws IOException {
+        while (true) {
+            int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            if (first == BinaryCodec.MAGIC) {
+                int version = in.read();
+                byte[] payload = readPayload();
+                if (version == BinaryCodec.VERSION) {
+                    return BinaryCodec.decode(payload);
+                }
+                Logger.warn("Frame binário de versão desconhecida ignorado: " + version);
+                continue;
+            }
+            
+            String json = readLine(first);
+            if (json == null) {
+                return null;
+            }
+            if (!json.isEmpty()) {
+                return NetProtocol.deserializeFrame(json);
+            }
+        }
+    }
+    
+    private byte[] readPayload() throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Frame binário truncado");
+            }
+            if (shift >= 35 || (shift == 28 && b > 0x0F)) {
+                throw new ProtocolException("Tamanho de frame inválido");
+            }
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (length < 0 || length > FrameDecoder.MAX_FRAME_SIZE) {
+            throw new ProtocolException("Frame binário muito grande: " + length);
+        }
+        byte[] payload = in.readNBytes(length);
+        if (payload.length < length) {
+            throw new EOFException("Frame binário truncado");
+        }
+        return payload;
+    }
+    
+    /**
+     * Lê até o '\n' (o primeiro byte já foi consumido); null se o stream acabar no meio
+     */
+    private String readLine(int first) throws IOException {
+        line.reset();
+        int b = first;
+        while (b != '\n') {
+            if (b < 0) {
+                return null;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+            if (line.size() > FrameDecoder.MAX_FRAME_SIZE) {
+                throw new ProtocolException("Linha JSON muito grande");
+            }
+            b = in.read();
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -2,8 +2,11 @@ package com.arcane.tetris.net;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.BoardView;
 import com.arcane.tetris.engine.GameEngine;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -11,38 +14,144 @@ import java.util.Map;
  */
 public class NetProtocol {
     private static final ObjectMapper mapper = new ObjectMapper();
+    // Linha vazia compartilhada pelos payloads; ninguém altera as linhas recebidas
+    private static final int[] EMPTY_ROW = new int[Board.WIDTH];
     
     public static final String TYPE_CONNECT = "CONNECT";
     public static final String TYPE_STATE_UPDATE = "STATE_UPDATE";
     public static final String TYPE_SPELL_CAST = "SPELL_CAST";
     public static final String TYPE_PING = "PING";
     public static final String TYPE_DISCONNECT = "DISCONNECT";
+    public static final String TYPE_CONNECT_ACK = "CONNECT_ACK";
+    public static final String TYPE_STATE_DELTA = "STATE_DELTA";
+    public static final String TYPE_RESYNC = "RESYNC";
+    public static final String TYPE_PONG = "PONG";
+    
+    // Codecs negociados no CONNECT (JSON é sempre suportado)
+    public static final String CODEC_JSON = "json";
+    public static final String CODEC_BINARY = "bin" + BinaryCodec.VERSION;
+    
+    /** Sala de quem não escolhe nenhuma no CONNECT (clientes antigos) */
+    public static final String DEFAULT_ROOM = "lobby";
     
     /**
-     * Cria mensagem de conexão
+     * Cria mensagem de conexão, anunciando os codecs suportados em ordem de preferência
      */
     public static NetMessage createConnectMessage(String playerId, String playerName) {
+        return createConnectMessage(playerId, playerName, DEFAULT_ROOM);
+    }
+    
+    /**
+     * Cria mensagem de conexão para entrar numa sala (partida)
+     */
+    public static NetMessage createConnectMessage(String playerId, String playerName, String room) {
         Map<String, Object> data = new HashMap<>();
         data.put("name", playerName);
+        data.put("room", room);
+        data.put("codecs", List.of(CODEC_BINARY, CODEC_JSON));
         return new NetMessage(TYPE_CONNECT, playerId, data);
     }
     
+    /**
+     * Sala pedida num CONNECT (DEFAULT_ROOM se ausente)
+     */
+    public static String roomOf(Object connectData) {
+        if (connectData instanceof Map) {
+            Object room = ((Map<?, ?>) connectData).get("room");
+            if (room instanceof String && !((String) room).isEmpty()) {
+                return (String) room;
+            }
+        }
+        return DEFAULT_ROOM;
+    }
+    
+    /**
+     * Cria a resposta do servidor ao CONNECT com o codec escolhido
+     */
+    public static NetMessage createConnectAck(String playerId, String codec) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("codec", codec);
+        return new NetMessage(TYPE_CONNECT_ACK, playerId, data);
+    }
+    
+    /**
+     * Escolhe o codec a partir dos dados de um CONNECT (JSON se o cliente não anunciou nenhum)
+     */
+    public static String negotiateCodec(Object connectData) {
+        if (connectData instanceof Map) {
+            Object codecs = ((Map<?, ?>) connectData).get("codecs");
+            if (codecs instanceof List && ((List<?>) codecs).contains(CODEC_BINARY)) {
+                return CODEC_BINARY;
+            }
+        }
+        return CODEC_JSON;
+    }
+    
     /**
      * Cria mensagem de atualização de estado
      */
     public static NetMessage createStateUpdate(String playerId, GameEngine engine) {
+        Map<String, Object> data = createStateData(engine);
+        data.put("board", createBoardData(engine.getBoard(), "grid", gridRows(engine.getBoard())));
+        return new NetMessage(TYPE_STATE_UPDATE, playerId, data);
+    }
+    
+    /**
+     * Cria um keyframe (estado completo) numerado, base para os deltas seguintes
+     */
+    public static NetMessage createStateUpdate(String playerId, GameEngine engine, int seq) {
+        Map<String, Object> data = createStateData(engine);
+        data.put("seq", seq);
+        data.put("board", createBoardData(engine.getBoard(), "grid", gridRows(engine.getBoard())));
+        return new NetMessage(TYPE_STATE_UPDATE, playerId, data);
+    }
+    
+    /**
+     * Cria um delta: só as linhas alteradas desde a mensagem base, mais contadores e peça
+     * @param changedRows índices das linhas alteradas; rows[i] é o conteúdo de changedRows[i]
+     */
+    public static NetMessage createStateDelta(String playerId, GameEngine engine, int seq, int base,
+                                              int[] changedRows, int[][] rows) {
+        Map<String, Object> data = createStateData(engine);
+        data.put("seq", seq);
+        data.put("base", base);
+        Map<String, Object> boardData = createBoardData(engine.getBoard(), "rows", rows);
+        boardData.put("changedRows", changedRows);
+        data.put("board", boardData);
+        return new NetMessage(TYPE_STATE_DELTA, playerId, data);
+    }
+    
+    /**
+     * Cria um PING com o instante de envio (System.nanoTime do remetente), ecoado no PONG
+     */
+    public static NetMessage createPing(String playerId) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("t", System.nanoTime());
+        return new NetMessage(TYPE_PING, playerId, data);
+    }
+    
+    /**
+     * Cria a resposta a um PING, com os dados dele
+     */
+    public static NetMessage createPong(String playerId, Object pingData) {
+        return new NetMessage(TYPE_PONG, playerId, pingData);
+    }
+    
+    /**
+     * Cria o pedido de keyframe enviado quando um delta chega sem a base esperada
+     */
+    public static NetMessage createResync(String playerId, String targetId) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("target", targetId);
+        return new NetMessage(TYPE_RESYNC, playerId, data);
+    }
+    
+    private static Map<String, Object> createStateData(GameEngine engine) {
         Map<String, Object> data = new HashMap<>();
         data.put("score", engine.getScore());
         data.put("lines", engine.getLines());
         data.put("level", engine.getLevel());
         
-        Board board = engine.getBoard();
-        Map<String, Object> boardData = new HashMap<>();
-        boardData.put("grid", board.getGrid());
-        boardData.put("height", board.getAggregateHeight());
-        boardData.put("holes", board.getHoles());
-        data.put("board", boardData);
-        
         if (engine.getCurrentPiece() != null) {
             Map<String, Object> pieceData = new HashMap<>();
             pieceData.put("type", engine.getCurrentPiece().getType().name());
@@ -51,8 +160,37 @@ public class NetProtocol {
             pieceData.put("rotation", engine.getCurrentPiece().getRotation());
             data.put("currentPiece", pieceData);
         }
-        
-        return new NetMessage(TYPE_STATE_UPDATE, playerId, data);
+        return data;
+    }
+    
+    /**
+     * Linhas do grid lidas das máscaras, sem a cópia completa de getGrid
+     * Linhas vazias apontam todas para a mesma linha de zeros
+     */
+    static int[][] gridRows(BoardView board) {
+        int[][] grid = new int[Board.HEIGHT][];
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            int mask = board.getRowMask(y);
+            if (mask == 0) {
+                grid[y] = EMPTY_ROW;
+                continue;
+            }
+            int[] row = new int[Board.WIDTH];
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                int x = Integer.numberOfTrailingZeros(bits);
+                row[x] = board.getCell(x, y);
+            }
+            grid[y] = row;
+        }
+        return grid;
+    }
+    
+    private static Map<String, Object> createBoardData(Board board, String cellsKey, int[][] cells) {
+        Map<String, Object> boardData = new HashMap<>();
+        boardData.put(cellsKey, cells);
+        boardData.put("height", board.getAggregateHeight());
+        boardData.put("holes", board.getHoles());
+        return boardData;
     }
     
     /**
@@ -77,6 +215,17 @@ public class NetProtocol {
         }
     }
     
+    /**
+     * Codifica a mensagem num frame pronto para o socket
+     * No codec binário, tipos sem representação binária seguem como linha JSON
+     */
+    public static byte[] encodeFrame(NetMessage message, String codec) {
+        if (CODEC_BINARY.equals(codec) && BinaryCodec.supports(message.getType())) {
+            return BinaryCodec.encode(message);
+        }
+        return (serialize(message) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+    
     /**
      * Deserializa JSON para mensagem
      */
@@ -87,5 +236,127 @@ public class NetProtocol {
             throw new RuntimeException("Erro ao deserializar mensagem", e);
         }
     }
+    
+    /**
+     * Deserializa uma linha recebida da rede; JSON inválido ou fora do formato vira ProtocolException
+     */
+    static NetMessage deserializeFrame(String json) throws ProtocolException {
+        NetMessage message;
+        try {
+            message = mapper.readValue(json, NetMessage.class);
+        } catch (Exception e) {
+            throw new ProtocolException("Mensagem JSON inválida", e);
+        }
+        return validate(message);
+    }
+    
+    /**
+     * Confere tipo e formato dos dados de uma mensagem recebida, para que os consumidores
+     * possam fazer cast sem risco. Tipos desconhecidos passam: quem recebe os ignora
+     */
+    static NetMessage validate(NetMessage message) throws ProtocolException {
+        String type = message.getType();
+        if (type == null) {
+            throw new ProtocolException("Mensagem sem tipo");
+        }
+        Object data = message.getData();
+        switch (type) {
+            case TYPE_CONNECT:
+                requirePlayerId(message);
+                if (data != null) {
+                    requireMap(data, type);
+                }
+                break;
+            
+            case TYPE_STATE_UPDATE:
+            case TYPE_STATE_DELTA:
+                requirePlayerId(message);
+                validateState(type, requireMap(data, type));
+                break;
+            
+            case TYPE_SPELL_CAST:
+                requireMap(data, type);
+                break;
+            
+            case TYPE_RESYNC:
+                if (!(requireMap(data, type).get("target") instanceof String)) {
+                    throw new ProtocolException("RESYNC sem jogador alvo");
+                }
+                break;
+            
+            default:
+                break;
+        }
+        return message;
+    }
+    
+    private static void validateState(String type, Map<?, ?> data) throws ProtocolException {
+        boolean delta = TYPE_STATE_DELTA.equals(type);
+        requireNumber(data, "seq", delta);
+        requireNumber(data, "base", delta);
+        requireNumber(data, "score", false);
+        requireNumber(data, "lines", false);
+        requireNumber(data, "level", false);
+        if (data.get("currentPiece") != null) {
+            requireMap(data.get("currentPiece"), "currentPiece");
+        }
+        
+        Map<?, ?> board = requireMap(data.get("board"), "board");
+        if (!delta) {
+            requireRows(board.get("grid"), "grid");
+            return;
+        }
+        List<?> changedRows = requireList(board.get("changedRows"), "changedRows");
+        for (Object y : changedRows) {
+            if (!(y instanceof Number)) {
+                throw new ProtocolException("Índice de linha inválido: " + y);
+            }
+        }
+        if (requireRows(board.get("rows"), "rows").size() != changedRows.size()) {
+            throw new ProtocolException("Delta com linhas e índices em quantidades diferentes");
+        }
+    }
+    
+    private static void requirePlayerId(NetMessage message) throws ProtocolException {
+        if (message.getPlayerId() == null) {
+            throw new ProtocolException(message.getType() + " sem playerId");
+        }
+    }
+    
+    private static void requireNumber(Map<?, ?> data, String key, boolean required) throws ProtocolException {
+        Object value = data.get(key);
+        if (value == null ? required : !(value instanceof Number)) {
+            throw new ProtocolException("Campo numérico inválido: " + key);
+        }
+    }
+    
+    private static Map<?, ?> requireMap(Object value, String what) throws ProtocolException {
+        if (!(value instanceof Map)) {
+            throw new ProtocolException("Dados inválidos em " + what);
+        }
+        return (Map<?, ?>) value;
+    }
+    
+    private static List<?> requireList(Object value, String what) throws ProtocolException {
+        if (!(value instanceof List)) {
+            throw new ProtocolException("Lista esperada em " + what);
+        }
+        return (List<?>) value;
+    }
+    
+    /**
+     * Lista de linhas, cada uma lista de números (grid ou linhas de um delta)
+     */
+    private static List<?> requireRows(Object value, String what) throws ProtocolException {
+        List<?> rows = requireList(value, what);
+        for (Object row : rows) {
+            for (Object cell : requireList(row, what)) {
+                if (!(cell instanceof Number)) {
+                    throw new ProtocolException("Célula inválida em " + what + ": " + cell);
+                }
+            }
+        }
+        return rows;
+    }
 }
 
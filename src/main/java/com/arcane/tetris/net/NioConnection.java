@@ -0,0 +1,209 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.util.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conexão servida por um NioEventLoop
+ * send() só enfileira uma visão da cópia direta do frame compartilhado e agenda um flush no
+ * loop, que escreve os frames pendentes de uma vez (gathering write) sem bloquear
+ * Ao entrar numa sala a conexão pode migrar para o loop dono da sala (moveTo)
+ */
+final class NioConnection extends Connection {
+    private final SocketChannel channel;
+    private volatile NioEventLoop loop;
+    private final FrameDecoder decoder = new FrameDecoder();
+    private final BufferPool framePool;
+    private final Queue<Pending> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Runnable flushTask = this::flush;
+    private volatile SelectionKey key;  // null durante a migração entre loops
+    private volatile boolean connected = true;
+    private boolean closed;
+    
+    /**
+     * Frame na fila e a visão dele que esta conexão escreve
+     */
+    private static final class Pending {
+        final OutboundFrame frame;
+        final ByteBuffer view;
+        
+        Pending(OutboundFrame frame, ByteBuffer view) {
+            this.frame = frame;
+            this.view = view;
+        }
+    }
+    
+    NioConnection(SocketChannel channel, NioEventLoop loop, int maxQueued, Server.SlowConsumerPolicy policy) {
+        super(maxQueued, policy);
+        this.channel = channel;
+        this.loop = loop;
+        this.framePool = loop.framePool();
+    }
+    
+    void attach(SelectionKey key) {
+        this.key = key;
+    }
+    
+    NioEventLoop loop() {
+        return loop;
+    }
+    
+    /**
+     * Passa a conexão para outro loop (chamado na thread do loop atual, ao tratar uma mensagem)
+     * O canal deixa este selector; o loop atual entrega ao destino as mensagens que ainda não
+     * tratou (NioEventLoop.adopt), e o destino registra o canal e retoma as escritas pendentes
+     */
+    void moveTo(NioEventLoop target) {
+        if (target == loop || closed) {
+            return;
+        }
+        key.cancel();
+        key = null;
+        loop = target;
+    }
+    
+    /**
+     * Registro concluído no novo loop
+     */
+    void registered(SelectionKey newKey) {
+        key = newKey;
+        flush();
+    }
+    
+    SocketChannel channel() {
+        return channel;
+    }
+    
+    FrameDecoder decoder() {
+        return decoder;
+    }
+    
+    @Override
+    void send(OutboundFrame frame) {
+        if (!connected || !admit(frame)) {
+            return;
+        }
+        outbound.add(new Pending(frame, frame.retain(framePool)));
+        if (!connected) {
+            // Fechou enquanto enfileirava: a visão volta ao pool na thread do loop
+            loop.execute(this::releaseQueued);
+            return;
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            loop.execute(flushTask);
+        }
+    }
+    
+    /**
+     * Escreve o que o socket aceitar; o restante espera o próximo OP_WRITE
+     */
+    void flush() {
+        flushScheduled.set(false);
+        if (closed) {
+            return;
+        }
+        if (!loop.inLoop()) {
+            // Agendado antes de uma migração: continua no loop atual
+            if (flushScheduled.compareAndSet(false, true)) {
+                loop.execute(flushTask);
+            }
+            return;
+        }
+        if (key == null) {
+            return; // Migrando: registered() faz o flush
+        }
+        try {
+            key.interestOps(writeQueued()
+                ? SelectionKey.OP_READ
+                : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            Logger.debug("Erro ao escrever: " + e.getMessage());
+            closeNow();
+        }
+    }
+    
+    /**
+     * Escreve a fila em lotes com uma única chamada por lote; o frame da cabeça pode ter
+     * sido escrito em parte no flush anterior. Retorna false se o socket não aceitou tudo
+     */
+    private boolean writeQueued() throws IOException {
+        ByteBuffer[] batch = loop.gatherBuffers();
+        while (true) {
+            int count = 0;
+            for (Pending pending : outbound) {
+                batch[count++] = pending.view;
+                if (count == batch.length) {
+                    break;
+                }
+            }
+            if (count == 0) {
+                return true;
+            }
+            channel.write(batch, 0, count);
+            int done = 0;
+            while (done < count && !batch[done].hasRemaining()) {
+                outbound.poll().frame.release(framePool);
+                done++;
+            }
+            Arrays.fill(batch, 0, count, null);
+            sent(done);
+            if (done < count) {
+                return false;
+            }
+        }
+    }
+    
+    @Override
+    boolean isConnected() {
+        return connected;
+    }
+    
+    @Override
+    void disconnect() {
+        connected = false;
+        if (loop.inLoop()) {
+            closeNow();
+        } else {
+            loop.execute(this::closeNow);
+        }
+    }
+    
+    /**
+     * Fecha o canal e libera os buffers (na thread do loop)
+     */
+    void closeNow() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        connected = false;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Logger.error("Erro ao fechar conexão", e);
+        }
+        releaseQueued();
+        loop.server().onDisconnect(this);
+    }
+    
+    /**
+     * Descarta a fila de saída soltando as visões (na thread do loop)
+     */
+    private void releaseQueued() {
+        Pending pending;
+        while ((pending = outbound.poll()) != null) {
+            pending.frame.release(framePool);
+        }
+    }
+}
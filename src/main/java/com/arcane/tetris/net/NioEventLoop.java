@@ -0,0 +1,244 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.util.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Event loop NIO: um Selector e uma thread atendendo muitas conexões
+ * Todo acesso aos canais e às chaves acontece na thread do loop; outras threads
+ * enviam trabalho por execute()
+ * Um erro numa conexão (frame malformado, falha inesperada) fecha só ela: o loop continua
+ */
+final class NioEventLoop implements Runnable {
+    /** Frames por gathering write */
+    private static final int MAX_GATHER = 64;
+    
+    private final Server server;
+    private final BufferPool pool;
+    private final BufferPool framePool;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final List<NetMessage> decoded = new ArrayList<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private volatile boolean running;
+    private volatile Thread thread;
+    
+    /**
+     * @param pool buffers de leitura
+     * @param framePool cópias diretas dos frames de saída (OutboundFrame.retain)
+     */
+    NioEventLoop(Server server, BufferPool pool, BufferPool framePool) throws IOException {
+        this.server = server;
+        this.pool = pool;
+        this.framePool = framePool;
+        this.selector = Selector.open();
+    }
+    
+    /**
+     * Agenda uma tarefa na thread do loop
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+    
+    boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+    
+    /**
+     * Passa um canal aceito para este loop
+     */
+    void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                channel.configureBlocking(false);
+                NioConnection connection = new NioConnection(channel, this, server.getMaxQueuedFrames(),
+                                                              server.getSlowConsumerPolicy());
+                connection.attach(channel.register(selector, SelectionKey.OP_READ, connection));
+                server.onConnect(connection);
+            } catch (IOException e) {
+                Logger.error("Erro ao registrar conexão", e);
+                closeQuietly(channel);
+            }
+        });
+    }
+    
+    /**
+     * Recebe uma conexão migrada de outro loop
+     * As mensagens já decodificadas no loop de origem são tratadas antes de o canal entrar
+     * neste selector, então nada lido depois passa na frente delas
+     */
+    void adopt(NioConnection connection, List<NetMessage> pending) {
+        execute(() -> {
+            if (!dispatch(connection, pending)) {
+                return; // Migrou de novo: o próximo loop continua
+            }
+            if (!connection.isConnected()) {
+                connection.closeNow();
+                return;
+            }
+            try {
+                connection.registered(connection.channel().register(selector, SelectionKey.OP_READ, connection));
+            } catch (IOException e) {
+                Logger.error("Erro ao migrar conexão", e);
+                connection.closeNow();
+            }
+        });
+    }
+    
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        running = true;
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    NioConnection connection = (NioConnection) key.attachment();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (RuntimeException e) {
+                        Logger.error("Erro em conexão do event loop", e);
+                        decoded.clear();
+                        connection.closeNow();
+                    }
+                }
+                runTasks();
+            } catch (IOException e) {
+                Logger.error("Erro no event loop", e);
+            }
+        }
+        closeAll();
+    }
+    
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Logger.error("Erro em tarefa do event loop", e);
+            }
+        }
+    }
+    
+    private void read(NioConnection connection) {
+        ByteBuffer buffer = pool.acquire();
+        try {
+            int n = connection.channel().read(buffer);
+            if (n < 0) {
+                connection.closeNow();
+                return;
+            }
+            buffer.flip();
+            connection.decoder().decode(buffer, decoded);
+        } catch (ProtocolException e) {
+            Logger.warn("Frame inválido, encerrando conexão: " + e.getMessage());
+            connection.closeNow();
+        } catch (IOException e) {
+            Logger.debug("Conexão encerrada: " + e.getMessage());
+            connection.closeNow();
+        } finally {
+            pool.release(buffer);
+        }
+        
+        dispatch(connection, decoded);
+        decoded.clear();
+    }
+    
+    /**
+     * Trata as mensagens em ordem; se uma delas migra a conexão para o loop da sala,
+     * o restante vai junto para o destino (adopt)
+     * @return false se a conexão saiu deste loop
+     */
+    private boolean dispatch(NioConnection connection, List<NetMessage> messages) {
+        for (int i = 0; i < messages.size() && connection.isConnected(); i++) {
+            handle(connection, messages.get(i));
+            if (connection.loop() != this) {
+                List<NetMessage> rest = new ArrayList<>(messages.subList(i + 1, messages.size()));
+                connection.loop().adopt(connection, rest);
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void handle(NioConnection connection, NetMessage message) {
+        if (!connection.isConnected()) {
+            return;
+        }
+        try {
+            server.handleMessage(connection, message);
+        } catch (RuntimeException e) {
+            Logger.error("Erro ao tratar mensagem", e);
+        }
+    }
+    
+    /**
+     * Vetor de trabalho para gathering writes (só na thread do loop)
+     */
+    ByteBuffer[] gatherBuffers() {
+        return gather;
+    }
+    
+    Server server() {
+        return server;
+    }
+    
+    BufferPool framePool() {
+        return framePool;
+    }
+    
+    /**
+     * Para o loop; as conexões restantes são fechadas na thread do loop
+     */
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+    
+    private void closeAll() {
+        runTasks();
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioConnection) {
+                ((NioConnection) key.attachment()).closeNow();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            Logger.error("Erro ao fechar selector", e);
+        }
+    }
+    
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Já fechado
+        }
+    }
+}
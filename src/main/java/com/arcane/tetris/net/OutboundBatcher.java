@@ -0,0 +1,161 @@
+package com.arcane.tetris.net;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Acumula as mensagens de envio do cliente para escrevê-las num único write
+ * Um novo estado do jogador substitui o estado ainda não enviado: keyframe substitui tudo,
+ * delta sobre delta vira um delta só (mesma base, linhas unidas) e delta sobre keyframe
+ * vira um keyframe atualizado. O estado unido vai para o fim do lote, no lugar do último
+ * estado: mensagens adicionadas entre os dois continuam chegando antes dele
+ */
+final class OutboundBatcher {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<NetMessage> messages = new ArrayList<>();
+    private final List<byte[]> frames = new ArrayList<>();
+    private int stateIndex = -1;  // estado pendente em messages/frames, -1 se nenhum
+    private int pendingBytes;
+    private int coalesced;
+    
+    /**
+     * Adiciona uma mensagem já no codec atual
+     * @return bytes pendentes após a adição
+     */
+    int add(NetMessage message, String codec) {
+        lock.lock();
+        try {
+            if (isState(message) && stateIndex >= 0) {
+                // O estado unido sai da posição antiga e entra no fim, como o estado mais novo
+                pendingBytes -= frames.remove(stateIndex).length;
+                message = merge(messages.remove(stateIndex), message);
+                coalesced++;
+            }
+            byte[] frame = NetProtocol.encodeFrame(message, codec);
+            if (isState(message)) {
+                stateIndex = messages.size();
+            }
+            messages.add(message);
+            frames.add(frame);
+            pendingBytes += frame.length;
+            return pendingBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Retira tudo o que está pendente como um único bloco de bytes (null se vazio)
+     */
+    byte[] drain() {
+        lock.lock();
+        try {
+            if (frames.isEmpty()) {
+                return null;
+            }
+            byte[] batch = new byte[pendingBytes];
+            int pos = 0;
+            for (byte[] frame : frames) {
+                System.arraycopy(frame, 0, batch, pos, frame.length);
+                pos += frame.length;
+            }
+            messages.clear();
+            frames.clear();
+            stateIndex = -1;
+            pendingBytes = 0;
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int getPendingBytes() {
+        lock.lock();
+        try {
+            return pendingBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Estados substituídos antes de serem enviados
+     */
+    int getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static boolean isState(NetMessage message) {
+        return NetProtocol.TYPE_STATE_UPDATE.equals(message.getType())
+            || NetProtocol.TYPE_STATE_DELTA.equals(message.getType());
+    }
+    
+    /**
+     * Junta o estado pendente com o seguinte, que o substitui
+     */
+    static NetMessage merge(NetMessage pending, NetMessage next) {
+        if (NetProtocol.TYPE_STATE_UPDATE.equals(next.getType())) {
+            return next;
+        }
+        Map<String, Object> pendingData = asMap(pending.getData());
+        Map<String, Object> pendingBoard = asMap(pendingData.get("board"));
+        Map<String, Object> data = new HashMap<>(asMap(next.getData()));
+        Map<String, Object> board = new HashMap<>(asMap(data.get("board")));
+        int[] nextChanged = (int[]) board.get("changedRows");
+        int[][] nextRows = (int[][]) board.get("rows");
+        
+        if (NetProtocol.TYPE_STATE_UPDATE.equals(pending.getType())) {
+            // Keyframe pendente com as linhas do delta aplicadas
+            int[][] grid = (int[][]) pendingBoard.get("grid");
+            for (int i = 0; i < nextChanged.length; i++) {
+                grid[nextChanged[i]] = nextRows[i];
+            }
+            board.remove("changedRows");
+            board.remove("rows");
+            board.put("grid", grid);
+            data.remove("base");
+            data.put("board", board);
+            return new NetMessage(NetProtocol.TYPE_STATE_UPDATE, next.getPlayerId(), data);
+        }
+        
+        // Delta sobre delta: base do primeiro, linhas do segundo prevalecem
+        int[] pendingChanged = (int[]) pendingBoard.get("changedRows");
+        int[][] pendingRows = (int[][]) pendingBoard.get("rows");
+        int[] changed = new int[pendingChanged.length + nextChanged.length];
+        int[][] rows = new int[changed.length][];
+        int count = 0;
+        for (int i = 0; i < nextChanged.length; i++) {
+            changed[count] = nextChanged[i];
+            rows[count++] = nextRows[i];
+        }
+        outer:
+        for (int i = 0; i < pendingChanged.length; i++) {
+            for (int j = 0; j < nextChanged.length; j++) {
+                if (nextChanged[j] == pendingChanged[i]) {
+                    continue outer;
+                }
+            }
+            changed[count] = pendingChanged[i];
+            rows[count++] = pendingRows[i];
+        }
+        board.put("changedRows", Arrays.copyOf(changed, count));
+        board.put("rows", Arrays.copyOf(rows, count));
+        data.put("base", pendingData.get("base"));
+        data.put("board", board);
+        return new NetMessage(NetProtocol.TYPE_STATE_DELTA, next.getPlayerId(), data);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
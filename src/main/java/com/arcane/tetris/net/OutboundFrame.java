@@ -0,0 +1,76 @@
+package com.arcane.tetris.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Frame já codificado e imutável, compartilhado por todos os destinatários de um repasse
+ * A mensagem é serializada uma vez. O modo bloqueante escreve os bytes do heap no stream; as
+ * conexões NIO escrevem visões de uma única cópia num buffer direto (retain/release), já que
+ * o canal copiaria um buffer do heap para um direto temporário a cada write
+ */
+final class OutboundFrame {
+    private final byte[] bytes;
+    private final ByteBuffer data;
+    private final boolean droppable;
+    private ByteBuffer direct;  // cópia direta enquanto alguma conexão NIO tem o frame na fila
+    private int refs;
+    
+    private OutboundFrame(byte[] bytes, boolean droppable) {
+        this.bytes = bytes;
+        this.data = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        this.droppable = droppable;
+    }
+    
+    /**
+     * Codifica a mensagem no codec dado; deltas podem ser descartados para consumidores lentos,
+     * já que o destinatário detecta a lacuna e pede um keyframe (RESYNC)
+     */
+    static OutboundFrame of(NetMessage message, String codec) {
+        return new OutboundFrame(NetProtocol.encodeFrame(message, codec),
+                                 NetProtocol.TYPE_STATE_DELTA.equals(message.getType()));
+    }
+    
+    /**
+     * Visão somente leitura dos bytes no heap, com posição própria
+     */
+    ByteBuffer buffer() {
+        return data.duplicate();
+    }
+    
+    /**
+     * Visão somente leitura da cópia direta, com posição própria, para escrita no canal
+     * A primeira conexão copia os bytes para um buffer do pool (ou um alocado à parte, se o
+     * frame não couber); cada retain exige um release depois que a visão foi escrita ou descartada
+     */
+    synchronized ByteBuffer retain(BufferPool pool) {
+        if (refs++ == 0) {
+            direct = bytes.length <= pool.getBufferSize() ? pool.acquire() : ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+        }
+        return direct.asReadOnlyBuffer();
+    }
+    
+    /**
+     * Solta uma visão; a última devolve a cópia direta ao pool
+     */
+    synchronized void release(BufferPool pool) {
+        if (--refs == 0) {
+            pool.release(direct);
+            direct = null;
+        }
+    }
+    
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+    
+    int size() {
+        return bytes.length;
+    }
+    
+    boolean isDroppable() {
+        return droppable;
+    }
+}
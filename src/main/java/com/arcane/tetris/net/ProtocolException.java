@@ -0,0 +1,17 @@
+package com.arcane.tetris.net;
+
+import java.io.IOException;
+
+/**
+ * Frame ou mensagem malformada vinda da rede
+ * É uma IOException: quem lê trata como erro da conexão e fecha só ela
+ */
+public class ProtocolException extends IOException {
+    public ProtocolException(String message) {
+        super(message);
+    }
+
+    public ProtocolException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
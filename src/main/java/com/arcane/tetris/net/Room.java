@@ -0,0 +1,62 @@
+package com.arcane.tetris.net;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sala (partida) do servidor: as mensagens de um jogador só chegam aos membros da mesma sala
+ * Os membros ficam numa lista copy-on-write, percorrida sem lock a cada repasse
+ */
+final class Room {
+    private final String name;
+    private final List<Connection> members = new CopyOnWriteArrayList<>();
+    
+    Room(String name) {
+        this.name = name;
+    }
+    
+    void join(Connection connection) {
+        members.add(connection);
+    }
+    
+    void leave(Connection connection) {
+        members.remove(connection);
+    }
+    
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+    
+    int size() {
+        return members.size();
+    }
+    
+    String getName() {
+        return name;
+    }
+    
+    /**
+     * Repassa a mensagem a todos os membros
+     * Codifica no máximo uma vez por codec, no formato negociado por cada cliente; todos os
+     * membros com o mesmo codec recebem o mesmo frame imutável
+     */
+    void broadcast(NetMessage message) {
+        OutboundFrame json = null;
+        OutboundFrame binary = null;
+        for (Connection member : members) {
+            if (member.isConnected()) {
+                if (NetProtocol.CODEC_BINARY.equals(member.getCodec())) {
+                    if (binary == null) {
+                        binary = OutboundFrame.of(message, NetProtocol.CODEC_BINARY);
+                    }
+                    member.send(binary);
+                } else {
+                    if (json == null) {
+                        json = OutboundFrame.of(message, NetProtocol.CODEC_JSON);
+                    }
+                    member.send(json);
+                }
+            }
+        }
+    }
+}
@@ -1,58 +1,163 @@
 package com.arcane.tetris.net;
 
+import com.arcane.tetris.util.Jmx;
 import com.arcane.tetris.util.Logger;
 import java.io.*;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import javax.management.ObjectName;
 
 /**
  * Servidor TCP para multiplayer online
+ * BLOCKING usa uma thread de plataforma por conexão, VIRTUAL_THREADS o mesmo código bloqueante
+ * em threads virtuais e NIO atende todas as conexões com poucos event loops
+ * As mensagens de jogo só circulam dentro da sala escolhida no CONNECT; no modo NIO cada
+ * sala pertence a um event loop, para onde as conexões dos seus membros migram
  */
 public class Server {
+    /**
+     * Modelo de I/O do servidor
+     */
+    public enum Mode {
+        BLOCKING,
+        VIRTUAL_THREADS,
+        NIO
+    }
+    
+    /**
+     * O que fazer com um cliente cuja fila de saída encheu
+     */
+    public enum SlowConsumerPolicy {
+        /** Descarta deltas (o cliente pede RESYNC depois) e mantém keyframes e controle */
+        DROP_DELTAS,
+        /** Desconecta o cliente */
+        DISCONNECT
+    }
+    
+    public static final int DEFAULT_EVENT_LOOPS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int NIO_BUFFER_SIZE = 16 * 1024;
+    private static final int NIO_MAX_POOLED_BUFFERS = 1024;
+    private static final int NIO_FRAME_BUFFER_SIZE = 4 * 1024;    // maiores são alocados à parte
+    private static final int NIO_MAX_POOLED_FRAME_BUFFERS = 4096;
+    public static final int DEFAULT_MAX_QUEUED_FRAMES = 256;
+    
     private ServerSocket serverSocket;
+    private ServerSocketChannel serverChannel;
     private int port;
-    private boolean running;
+    private final Mode mode;
+    private final int eventLoopCount;
+    private NioEventLoop[] eventLoops;
+    private volatile boolean running;
     private ExecutorService executor;
-    private List<ClientHandler> clients;
-    private ConcurrentHashMap<String, ClientHandler> playerMap;
+    private final ClientRegistry registry = new ClientRegistry();
+    private final ServerMetrics metrics = new ServerMetrics(this);
+    private ObjectName metricsName;
+    private int maxQueuedFrames = DEFAULT_MAX_QUEUED_FRAMES;
+    private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.DROP_DELTAS;
     
     public Server(int port) {
+        this(port, Mode.BLOCKING, DEFAULT_EVENT_LOOPS);
+    }
+    
+    /**
+     * @param eventLoops número de event loops no modo NIO (ignorado nos demais)
+     */
+    public Server(int port, Mode mode, int eventLoops) {
         this.port = port;
+        this.mode = mode;
+        this.eventLoopCount = Math.max(1, eventLoops);
         this.running = false;
-        this.executor = Executors.newCachedThreadPool();
-        this.clients = new ArrayList<>();
-        this.playerMap = new ConcurrentHashMap<>();
+        this.executor = mode == Mode.VIRTUAL_THREADS
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newCachedThreadPool();
     }
     
     public void start() {
+        if (mode == Mode.NIO) {
+            startNio();
+            return;
+        }
         try {
             serverSocket = new ServerSocket(port);
             running = true;
-            Logger.info("Servidor iniciado na porta " + port);
+            registerMetrics();
+            Logger.info("Servidor iniciado na porta " + getLocalPort());
             
             while (running) {
                 Socket clientSocket = serverSocket.accept();
                 ClientHandler handler = new ClientHandler(clientSocket);
-                clients.add(handler);
+                onConnect(handler);
                 executor.execute(handler);
             }
         } catch (IOException e) {
-            Logger.error("Erro no servidor", e);
+            if (running) {
+                Logger.error("Erro no servidor", e);
+            }
         }
     }
     
+    /**
+     * Aceita conexões na thread chamadora e as distribui entre os event loops (round-robin)
+     */
+    private void startNio() {
+        try {
+            BufferPool pool = new BufferPool(NIO_BUFFER_SIZE, NIO_MAX_POOLED_BUFFERS);
+            BufferPool framePool = new BufferPool(NIO_FRAME_BUFFER_SIZE, NIO_MAX_POOLED_FRAME_BUFFERS);
+            eventLoops = new NioEventLoop[eventLoopCount];
+            for (int i = 0; i < eventLoops.length; i++) {
+                eventLoops[i] = new NioEventLoop(this, pool, framePool);
+                Thread thread = new Thread(eventLoops[i], "nio-loop-" + i);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            running = true;
+            registerMetrics();
+            Logger.info("Servidor NIO iniciado na porta " + getLocalPort() + " com " + eventLoops.length + " event loops");
+            
+            int next = 0;
+            while (running) {
+                SocketChannel channel = serverChannel.accept();
+                eventLoops[next].register(channel);
+                next = (next + 1) % eventLoops.length;
+            }
+        } catch (IOException e) {
+            if (running) {
+                Logger.error("Erro no servidor", e);
+            }
+        }
+    }
+    
+    private void registerMetrics() {
+        metricsName = Jmx.register("type=Server,port=" + getLocalPort(), metrics);
+    }
+    
     public void stop() {
         running = false;
+        Jmx.unregister(metricsName);
+        metricsName = null;
         try {
             if (serverSocket != null) {
                 serverSocket.close();
             }
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+            if (eventLoops != null) {
+                for (NioEventLoop loop : eventLoops) {
+                    loop.shutdown();
+                }
+            }
             executor.shutdown();
             Logger.info("Servidor parado");
         } catch (IOException e) {
@@ -61,33 +166,153 @@ public class Server {
     }
     
     /**
-     * Broadcasta mensagem para todos os clientes
+     * Porta em que o servidor está escutando (útil com porta 0), ou -1 se não iniciado
      */
-    private void broadcast(NetMessage message) {
-        String json = NetProtocol.serialize(message);
-        for (ClientHandler client : clients) {
-            if (client.isConnected()) {
-                client.send(json);
-            }
+    public int getLocalPort() {
+        if (serverSocket != null) {
+            return serverSocket.getLocalPort();
+        }
+        if (serverChannel != null && serverChannel.socket().isBound()) {
+            return serverChannel.socket().getLocalPort();
+        }
+        return -1;
+    }
+    
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Limite da fila de saída de cada cliente e a política ao atingi-lo (vale para conexões novas)
+     */
+    public void setSlowConsumerPolicy(SlowConsumerPolicy policy, int maxQueuedFrames) {
+        this.slowConsumerPolicy = policy;
+        this.maxQueuedFrames = Math.max(1, maxQueuedFrames);
+    }
+    
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+    
+    public int getMaxQueuedFrames() {
+        return maxQueuedFrames;
+    }
+    
+    public int getConnectionCount() {
+        return registry.connectionCount();
+    }
+    
+    public int getRoomCount() {
+        return registry.roomCount();
+    }
+    
+    /**
+     * Latência de tratamento das mensagens (também exposta por JMX)
+     */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+    
+    private Room joinRoom(Connection connection, String name) {
+        Room room = registry.join(connection, name);
+        
+        // No modo NIO toda a sala é atendida pelo mesmo loop: o repasse não cruza threads
+        if (eventLoops != null && connection instanceof NioConnection) {
+            ((NioConnection) connection).moveTo(eventLoops[Math.floorMod(name.hashCode(), eventLoops.length)]);
         }
+        return room;
+    }
+    
+    void onConnect(Connection connection) {
+        registry.add(connection);
+    }
+    
+    void onDisconnect(Connection connection) {
+        registry.remove(connection);
+        Logger.info("Cliente desconectado: " + connection.getPlayerId());
     }
     
     /**
-     * Handler de cliente individual
+     * Trata uma mensagem recebida de um cliente (chamado pela thread que leu a mensagem)
      */
-    private class ClientHandler implements Runnable {
+    void handleMessage(Connection from, NetMessage message) {
+        long start = System.nanoTime();
+        try {
+            dispatch(from, message);
+        } finally {
+            metrics.recordProcessing(System.nanoTime() - start);
+        }
+    }
+    
+    private void dispatch(Connection from, NetMessage message) {
+        switch (message.getType()) {
+            case NetProtocol.TYPE_CONNECT:
+                // Tipo e formato já validados na decodificação (NetProtocol.validate)
+                Object data = message.getData();
+                String playerId = message.getPlayerId();
+                registry.bindPlayer(playerId, from);
+                from.setCodec(NetProtocol.negotiateCodec(data));
+                from.send(OutboundFrame.of(NetProtocol.createConnectAck(playerId, from.getCodec()),
+                                           NetProtocol.CODEC_JSON));
+                Room joined = joinRoom(from, NetProtocol.roomOf(data));
+                Logger.info("Cliente conectado: " + playerId + " (" + from.getCodec() + ", sala " + joined.getName() + ")");
+                joined.broadcast(message); // Notifica os outros membros da sala
+                break;
+            
+            case NetProtocol.TYPE_STATE_UPDATE:
+            case NetProtocol.TYPE_STATE_DELTA:
+            case NetProtocol.TYPE_SPELL_CAST:
+                // Repassa para os outros membros da sala (ignorado antes do CONNECT)
+                Room room = from.getRoom();
+                if (room != null) {
+                    room.broadcast(message);
+                }
+                break;
+            
+            case NetProtocol.TYPE_RESYNC:
+                // Pedido de keyframe vai só para o jogador cujo estado está defasado, se for da mesma sala
+                Connection target = registry.player((String) ((Map<?, ?>) message.getData()).get("target"));
+                if (target != null && target.isConnected() && target.getRoom() == from.getRoom()) {
+                    target.send(OutboundFrame.of(message, NetProtocol.CODEC_JSON));
+                }
+                break;
+            
+            case NetProtocol.TYPE_PING:
+                // Responde pong ecoando o timestamp; sem dados, usa o frame em cache
+                if (message.getData() == null) {
+                    from.send(from.pongFrame());
+                } else {
+                    from.send(OutboundFrame.of(NetProtocol.createPong(from.getPlayerId(), message.getData()),
+                                               NetProtocol.CODEC_JSON));
+                }
+                break;
+            
+            case NetProtocol.TYPE_DISCONNECT:
+                from.disconnect();
+                break;
+        }
+    }
+    
+    /**
+     * Handler de cliente individual (modo bloqueante)
+     * Uma thread lê e trata as mensagens; outra, do mesmo executor, esvazia a fila de saída.
+     * send só enfileira, então quem repassa para a sala nunca espera um socket lento
+     */
+    private class ClientHandler extends Connection implements Runnable {
         private Socket socket;
-        private BufferedReader in;
-        private PrintWriter out;
-        private String playerId;
-        private boolean connected;
+        private FrameReader in;
+        private OutputStream out;
+        private final BlockingQueue<OutboundFrame> outbound = new LinkedBlockingQueue<>();
+        private volatile Thread writer;
+        private volatile boolean connected;
         
         public ClientHandler(Socket socket) {
+            super(maxQueuedFrames, slowConsumerPolicy);
             this.socket = socket;
             this.connected = true;
             try {
-                this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                this.out = new PrintWriter(socket.getOutputStream(), true);
+                this.in = new FrameReader(new BufferedInputStream(socket.getInputStream()));
+                this.out = new BufferedOutputStream(socket.getOutputStream());
             } catch (IOException e) {
                 Logger.error("Erro ao criar handler", e);
             }
@@ -95,72 +320,90 @@ public class Server {
         
         @Override
         public void run() {
+            executor.execute(this::writeLoop);
             try {
-                String line;
-                while ((line = in.readLine()) != null && connected) {
-                    NetMessage message = NetProtocol.deserialize(line);
-                    handleMessage(message);
+                NetMessage message;
+                while ((message = in.read()) != null && connected) {
+                    handleMessage(this, message);
                 }
+            } catch (ProtocolException e) {
+                Logger.warn("Frame inválido, encerrando conexão: " + e.getMessage());
             } catch (IOException e) {
-                Logger.error("Erro ao ler mensagem", e);
+                if (connected) {
+                    Logger.error("Erro ao ler mensagem", e);
+                }
             } finally {
                 disconnect();
             }
         }
         
-        private void handleMessage(NetMessage message) {
-            switch (message.getType()) {
-                case NetProtocol.TYPE_CONNECT:
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> data = (Map<String, Object>) message.getData();
-                    playerId = message.getPlayerId();
-                    playerMap.put(playerId, this);
-                    Logger.info("Cliente conectado: " + playerId);
-                    broadcast(message); // Notifica outros clientes
-                    break;
-                    
-                case NetProtocol.TYPE_STATE_UPDATE:
-                case NetProtocol.TYPE_SPELL_CAST:
-                    // Repassa para outros clientes
-                    broadcast(message);
-                    break;
-                    
-                case NetProtocol.TYPE_PING:
-                    // Responde pong
-                    send(NetProtocol.serialize(new NetMessage("PONG", playerId, null)));
-                    break;
-                    
-                case NetProtocol.TYPE_DISCONNECT:
-                    disconnect();
-                    break;
+        @Override
+        public void send(OutboundFrame frame) {
+            if (out == null || !connected || !admit(frame)) {
+                return;
             }
+            outbound.add(frame);
         }
         
-        public void send(String message) {
-            if (out != null && connected) {
-                out.println(message);
+        /**
+         * Escreve a fila em lotes (um flush por lote) até a conexão cair
+         * Numa falha de escrita descarta a fila, descontando os frames, e desconecta
+         */
+        private void writeLoop() {
+            writer = Thread.currentThread();
+            int unsent = 0; // frames já tirados da fila e ainda não escritos
+            try {
+                while (connected) {
+                    OutboundFrame next = outbound.take();
+                    unsent = 1;
+                    do {
+                        next.writeTo(out);
+                        sent(1);
+                    } while ((next = outbound.poll()) != null);
+                    unsent = 0;
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                // Desconectado
+            } catch (IOException e) {
+                if (connected) {
+                    Logger.error("Erro ao enviar mensagem", e);
+                }
+            } finally {
+                int dropped = unsent;
+                while (outbound.poll() != null) {
+                    dropped++;
+                }
+                sent(dropped);
+                disconnect();
             }
         }
         
+        @Override
         public void disconnect() {
-            connected = false;
+            synchronized (this) {
+                if (!connected) {
+                    return;
+                }
+                connected = false;
+            }
             try {
                 if (socket != null) {
                     socket.close();
                 }
-                clients.remove(this);
-                if (playerId != null) {
-                    playerMap.remove(playerId);
-                }
-                Logger.info("Cliente desconectado: " + playerId);
             } catch (IOException e) {
                 Logger.error("Erro ao desconectar", e);
             }
+            Thread thread = writer;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+            onDisconnect(this);
         }
         
+        @Override
         public boolean isConnected() {
             return connected;
         }
     }
 }
-
@@ -0,0 +1,63 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.util.LatencyHistogram;
+
+/**
+ * Tempo de tratamento de cada mensagem recebida pelo servidor (decodificada até repassada)
+ */
+public final class ServerMetrics implements ServerMetricsMBean {
+    private final Server server;
+    private final LatencyHistogram processing = new LatencyHistogram();
+    
+    ServerMetrics(Server server) {
+        this.server = server;
+    }
+    
+    void recordProcessing(long nanos) {
+        processing.record(nanos);
+    }
+    
+    public LatencyHistogram getProcessingHistogram() {
+        return processing;
+    }
+    
+    @Override
+    public int getConnectionCount() {
+        return server.getConnectionCount();
+    }
+    
+    @Override
+    public int getRoomCount() {
+        return server.getRoomCount();
+    }
+    
+    @Override
+    public long getMessagesHandled() {
+        return processing.getTotalCount();
+    }
+    
+    @Override
+    public double getProcessingP50Micros() {
+        return processing.getValueAtPercentile(50) / 1_000.0;
+    }
+    
+    @Override
+    public double getProcessingP99Micros() {
+        return processing.getValueAtPercentile(99) / 1_000.0;
+    }
+    
+    @Override
+    public double getProcessingMaxMicros() {
+        return processing.getMax() / 1_000.0;
+    }
+    
+    @Override
+    public String getProcessingSummary() {
+        return processing.summary(1_000.0, "us");
+    }
+    
+    @Override
+    public void reset() {
+        processing.reset();
+    }
+}
@@ -0,0 +1,22 @@
+package com.arcane.tetris.net;
+
+/**
+ * Métricas do servidor expostas por JMX (com.arcane.tetris:type=Server,port=N)
+ */
+public interface ServerMetricsMBean {
+    int getConnectionCount();
+    
+    int getRoomCount();
+    
+    long getMessagesHandled();
+    
+    double getProcessingP50Micros();
+    
+    double getProcessingP99Micros();
+    
+    double getProcessingMaxMicros();
+    
+    String getProcessingSummary();
+    
+    void reset();
+}
@@ -0,0 +1,114 @@
+package com.arcane.tetris.net;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconstrói o estado completo de um jogador remoto a partir de keyframes e deltas
+ * Um delta cuja base não é a última mensagem aplicada indica lacuna: o estado fica
+ * inválido até o próximo keyframe, que deve ser pedido com RESYNC
+ * Um delta com índice de linha fora do grid é tratado da mesma forma
+ */
+public class StateDeltaDecoder {
+    private int[][] grid;
+    private int lastSeq = -1;
+    private boolean resyncPending;
+    
+    /**
+     * Aplica um STATE_UPDATE ou STATE_DELTA
+     * @return a mensagem como STATE_UPDATE completo, ou null se houve lacuna ou delta inválido
+     */
+    public NetMessage apply(NetMessage message) {
+        Map<String, Object> data = asMap(message.getData());
+        Map<String, Object> board = asMap(data.get("board"));
+        
+        if (NetProtocol.TYPE_STATE_UPDATE.equals(message.getType())) {
+            grid = toGrid(board.get("grid"));
+            lastSeq = data.containsKey("seq") ? intValue(data.get("seq")) : -1;
+            resyncPending = false;
+            return message;
+        }
+        
+        if (grid == null || lastSeq < 0 || intValue(data.get("base")) != lastSeq) {
+            lastSeq = -1;
+            return null;
+        }
+        Object changedRows = board.get("changedRows");
+        Object rows = board.get("rows");
+        int count = changedRows instanceof int[] ? ((int[]) changedRows).length : ((List<?>) changedRows).size();
+        for (int i = 0; i < count; i++) {
+            int y = changedRows instanceof int[]
+                ? ((int[]) changedRows)[i] : intValue(((List<?>) changedRows).get(i));
+            if (y < 0 || y >= grid.length) {
+                // Linhas anteriores já aplicadas: o grid só volta a valer com um keyframe
+                lastSeq = -1;
+                return null;
+            }
+            grid[y] = toRow(rows instanceof int[][] ? ((int[][]) rows)[i] : ((List<?>) rows).get(i));
+        }
+        lastSeq = intValue(data.get("seq"));
+        
+        Map<String, Object> fullBoard = new HashMap<>(board);
+        fullBoard.remove("changedRows");
+        fullBoard.remove("rows");
+        fullBoard.put("grid", toGrid(grid));
+        Map<String, Object> full = new HashMap<>(data);
+        full.remove("base");
+        full.put("board", fullBoard);
+        return new NetMessage(NetProtocol.TYPE_STATE_UPDATE, message.getPlayerId(), full);
+    }
+    
+    /**
+     * Marca o pedido de RESYNC; retorna false se já havia um pendente (evita repetir o pedido)
+     */
+    public boolean markResyncRequested() {
+        if (resyncPending) {
+            return false;
+        }
+        resyncPending = true;
+        return true;
+    }
+    
+    public int getLastSeq() {
+        return lastSeq;
+    }
+    
+    private static int[][] toGrid(Object value) {
+        if (value instanceof int[][]) {
+            int[][] source = (int[][]) value;
+            int[][] copy = new int[source.length][];
+            for (int y = 0; y < source.length; y++) {
+                copy[y] = source[y].clone();
+            }
+            return copy;
+        }
+        List<?> rows = (List<?>) value;
+        int[][] grid = new int[rows.size()][];
+        for (int y = 0; y < grid.length; y++) {
+            grid[y] = toRow(rows.get(y));
+        }
+        return grid;
+    }
+    
+    private static int[] toRow(Object value) {
+        if (value instanceof int[]) {
+            return ((int[]) value).clone();
+        }
+        List<?> cells = (List<?>) value;
+        int[] row = new int[cells.size()];
+        for (int x = 0; x < row.length; x++) {
+            row[x] = intValue(cells.get(x));
+        }
+        return row;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+    
+    private static int intValue(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+}
@@ -0,0 +1,122 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.BoardView;
+import com.arcane.tetris.engine.GameEngine;
+
+/**
+ * Gera as atualizações de estado de um jogador: keyframes periódicos e, entre eles,
+ * deltas só com as linhas que mudaram desde a mensagem anterior
+ * Usado por uma única thread de envio; requestKeyframe pode ser chamado de qualquer thread
+ */
+public class StateDeltaEncoder {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 30;
+    
+    private final int keyframeInterval;
+    private final int[][] sent = new int[Board.HEIGHT][Board.WIDTH]; // grid como o receptor o conhece
+    private final int[] changed = new int[Board.HEIGHT];
+    private long sentVersion = -1;
+    private int seq = -1;
+    private int sinceKeyframe;
+    private volatile boolean keyframeRequested = true;
+    
+    public StateDeltaEncoder() {
+        this(DEFAULT_KEYFRAME_INTERVAL);
+    }
+    
+    /**
+     * @param keyframeInterval mensagens entre dois keyframes (o próprio keyframe incluído)
+     */
+    public StateDeltaEncoder(int keyframeInterval) {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+    
+    /**
+     * Força um keyframe na próxima mensagem (ex.: pedido de RESYNC de um receptor)
+     */
+    public void requestKeyframe() {
+        keyframeRequested = true;
+    }
+    
+    /**
+     * Cria a próxima mensagem de estado do jogador
+     */
+    public NetMessage next(String playerId, GameEngine engine) {
+        int count = advance(engine.getBoard());
+        if (count < 0) {
+            return NetProtocol.createStateUpdate(playerId, engine, seq);
+        }
+        int[] changedRows = new int[count];
+        int[][] rows = new int[count][];
+        for (int i = 0; i < count; i++) {
+            changedRows[i] = changed[i];
+            rows[i] = sent[changed[i]].clone();
+        }
+        return NetProtocol.createStateDelta(playerId, engine, seq, seq - 1, changedRows, rows);
+    }
+    
+    /**
+     * Mesma sequência de next, já como frame binário escrito direto do tabuleiro
+     */
+    public byte[] nextFrame(String playerId, GameEngine engine) {
+        Board board = engine.getBoard();
+        int count = advance(board);
+        if (count < 0) {
+            return BinaryCodec.encodeState(playerId, board, engine, seq);
+        }
+        return BinaryCodec.encodeDelta(playerId, board, engine, seq, seq - 1, changed, count);
+    }
+    
+    /**
+     * Avança a numeração e o snapshot enviado
+     * @return -1 se a mensagem é um keyframe, senão quantas linhas mudaram (índices em changed)
+     */
+    private int advance(Board board) {
+        seq++;
+        if (keyframeRequested || ++sinceKeyframe >= keyframeInterval) {
+            keyframeRequested = false;
+            sinceKeyframe = 0;
+            snapshot(board);
+            return -1;
+        }
+        // Board intacto desde o último envio: só contadores e peça
+        int count = board.getVersion() == sentVersion ? 0 : diff(board);
+        sentVersion = board.getVersion();
+        return count;
+    }
+    
+    private void snapshot(BoardView board) {
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x++) {
+                sent[y][x] = board.getCell(x, y);
+            }
+        }
+        sentVersion = board.getVersion();
+    }
+    
+    /**
+     * Atualiza o snapshot enviado e retorna quantas linhas mudaram (índices em changed)
+     */
+    private int diff(BoardView board) {
+        int count = 0;
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            int[] row = sent[y];
+            boolean rowChanged = false;
+            for (int x = 0; x < Board.WIDTH; x++) {
+                int cell = board.getCell(x, y);
+                if (row[x] != cell) {
+                    row[x] = cell;
+                    rowChanged = true;
+                }
+            }
+            if (rowChanged) {
+                changed[count++] = y;
+            }
+        }
+        return count;
+    }
+    
+    public int getSeq() {
+        return seq;
+    }
+}
@@ -0,0 +1,73 @@
+package com.arcane.tetris.sim;
+
+import com.arcane.tetris.ai.AiController;
+import com.arcane.tetris.engine.GameEngine;
+import com.arcane.tetris.engine.Piece;
+import com.arcane.tetris.engine.Player;
+
+/**
+ * Fonte de comandos controlada pela IA
+ * Decide uma jogada a cada peça nova e a executa no mesmo tick (rotação, deslocamento e hard drop)
+ */
+public class AiInputSource implements InputSource {
+    private final double[] weights; // null = pesos da configuração
+    private final boolean useSpells;
+    private final boolean useLookahead;
+    private AiController ai;
+    private Piece lastPiece;
+    
+    public AiInputSource() {
+        this(null, false);
+    }
+    
+    /**
+     * @param weights pesos height, holes, bumpiness e lines (null para usar a configuração)
+     * @param useSpells se a IA também deve lançar feitiços
+     */
+    public AiInputSource(double[] weights, boolean useSpells) {
+        this(weights, useSpells, false);
+    }
+    
+    /**
+     * @param useLookahead se a IA deve considerar também a próxima peça (preview)
+     */
+    public AiInputSource(double[] weights, boolean useSpells, boolean useLookahead) {
+        this.weights = weights;
+        this.useSpells = useSpells;
+        this.useLookahead = useLookahead;
+    }
+    
+    @Override
+    public void onTick(Player player, Player opponent, long tick) {
+        GameEngine engine = player.getEngine();
+        if (ai == null) {
+            ai = weights == null
+                ? new AiController(engine.getBoard())
+                : new AiController(engine.getBoard(), weights[0], weights[1], weights[2], weights[3]);
+        }
+        
+        if (useSpells) {
+            ai.decideSpell(player, opponent);
+        }
+        
+        Piece piece = engine.getCurrentPiece();
+        if (piece == null || piece == lastPiece || engine.isGameOver()) {
+            return;
+        }
+        lastPiece = piece;
+        
+        AiController.Move move = useLookahead
+            ? ai.decideBestMove(piece, engine.getNextPiece())
+            : ai.decideBestMove(piece);
+        for (int r = 0; r < move.rotation; r++) {
+            engine.rotatePiece();
+        }
+        while (engine.getCurrentX() < move.x && engine.movePiece(1, 0)) {
+            // desloca para a direita até a coluna alvo
+        }
+        while (engine.getCurrentX() > move.x && engine.movePiece(-1, 0)) {
+            // desloca para a esquerda até a coluna alvo
+        }
+        engine.hardDrop();
+    }
+}
@@ -0,0 +1,63 @@
+package com.arcane.tetris.sim;
+
+/**
+ * Resultado de uma partida simulada
+ */
+public class GameResult {
+    private final long seed;
+    private final long ticks;
+    private final int[] scores;
+    private final int[] lines;
+    private final int[] levels;
+    private final int winner; // índice do vencedor (0 ou 1), -1 se empate/limite de ticks
+    
+    public GameResult(long seed, long ticks, int[] scores, int[] lines, int[] levels, int winner) {
+        this.seed = seed;
+        this.ticks = ticks;
+        this.scores = scores;
+        this.lines = lines;
+        this.levels = levels;
+        this.winner = winner;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public long getTicks() {
+        return ticks;
+    }
+    
+    public int getScore(int player) {
+        return scores[player];
+    }
+    
+    public int getLines(int player) {
+        return lines[player];
+    }
+    
+    public int getLevel(int player) {
+        return levels[player];
+    }
+    
+    public int getPlayerCount() {
+        return scores.length;
+    }
+    
+    public int getWinner() {
+        return winner;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("GameResult{seed=").append(seed)
+            .append(", ticks=").append(ticks)
+            .append(", winner=").append(winner);
+        for (int i = 0; i < scores.length; i++) {
+            sb.append(", p").append(i + 1).append("=[score=").append(scores[i])
+              .append(", lines=").append(lines[i])
+              .append(", level=").append(levels[i]).append(']');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,132 @@
+package com.arcane.tetris.sim;
+
+import com.arcane.tetris.engine.Player;
+import com.arcane.tetris.util.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * Simulador headless: roda partidas sem JavaFX, com tick lógico fixo
+ * Usado para avaliar pesos da IA e balancear feitiços em lote, em paralelo nos núcleos disponíveis
+ */
+public class HeadlessSimulator {
+    public static final double DEFAULT_TICK_SECONDS = 1.0 / 60.0;
+    
+    private final double tickSeconds;
+    private final long maxTicks;
+    
+    public HeadlessSimulator(long maxTicks) {
+        this(DEFAULT_TICK_SECONDS, maxTicks);
+    }
+    
+    public HeadlessSimulator(double tickSeconds, long maxTicks) {
+        this.tickSeconds = tickSeconds;
+        this.maxTicks = maxTicks;
+    }
+    
+    /**
+     * Roda uma partida até game over ou até o limite de ticks
+     * A mesma semente com as mesmas entradas reproduz a partida
+     * @param input2 fonte do segundo jogador (null para partida de um jogador)
+     */
+    public GameResult runGame(long seed, InputSource input1, InputSource input2) {
+        // Mesma semente para os dois: ambos recebem a mesma sequência de peças
+        Player player1 = new Player("p1", "Player 1", seed);
+        Player player2 = input2 != null ? new Player("p2", "Player 2", seed) : null;
+        
+        long tick = 0;
+        while (tick < maxTicks) {
+            input1.onTick(player1, player2, tick);
+            if (player2 != null) {
+                input2.onTick(player2, player1, tick);
+            }
+            
+            player1.update(tickSeconds);
+            if (player2 != null) {
+                player2.update(tickSeconds);
+            }
+            tick++;
+            
+            if (player1.getEngine().isGameOver()
+                    || (player2 != null && player2.getEngine().isGameOver())) {
+                break;
+            }
+        }
+        
+        return buildResult(seed, tick, player1, player2);
+    }
+    
+    private GameResult buildResult(long seed, long ticks, Player player1, Player player2) {
+        Player[] players = player2 != null ? new Player[] {player1, player2} : new Player[] {player1};
+        int[] scores = new int[players.length];
+        int[] lines = new int[players.length];
+        int[] levels = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            scores[i] = players[i].getEngine().getScore();
+            lines[i] = players[i].getEngine().getLines();
+            levels[i] = players[i].getEngine().getLevel();
+        }
+        
+        int winner = -1;
+        if (player2 != null) {
+            boolean over1 = player1.getEngine().isGameOver();
+            boolean over2 = player2.getEngine().isGameOver();
+            if (over1 && !over2) {
+                winner = 1;
+            } else if (over2 && !over1) {
+                winner = 0;
+            }
+        }
+        return new GameResult(seed, ticks, scores, lines, levels, winner);
+    }
+    
+    /**
+     * Roda várias partidas em paralelo, cada uma com sua semente (baseSeed + índice)
+     * As fábricas recebem a semente da partida para criar fontes de comando independentes
+     * @param input2Factory null para partidas de um jogador
+     * @param threads número de threads (0 = núcleos disponíveis)
+     */
+    public List<GameResult> runBatch(int games, long baseSeed,
+                                     LongFunction<InputSource> input1Factory,
+                                     LongFunction<InputSource> input2Factory,
+                                     int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            List<Future<GameResult>> futures = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                long seed = baseSeed + i;
+                futures.add(executor.submit(() -> runGame(seed,
+                    input1Factory.apply(seed),
+                    input2Factory != null ? input2Factory.apply(seed) : null)));
+            }
+            
+            List<GameResult> results = new ArrayList<>(games);
+            for (Future<GameResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Simulação interrompida", e);
+        } catch (ExecutionException e) {
+            Logger.error("Erro na simulação", e.getCause());
+            throw new RuntimeException("Erro na simulação", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    public double getTickSeconds() {
+        return tickSeconds;
+    }
+    
+    public long getMaxTicks() {
+        return maxTicks;
+    }
+}
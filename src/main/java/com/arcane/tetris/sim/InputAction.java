@@ -0,0 +1,37 @@
+package com.arcane.tetris.sim;
+
+import com.arcane.tetris.engine.GameEngine;
+
+/**
+ * Comandos básicos de movimento, equivalentes às teclas do GameController
+ */
+public enum InputAction {
+    MOVE_LEFT,
+    MOVE_RIGHT,
+    SOFT_DROP,
+    ROTATE,
+    HARD_DROP;
+    
+    /**
+     * Aplica o comando no engine
+     */
+    public void apply(GameEngine engine) {
+        switch (this) {
+            case MOVE_LEFT:
+                engine.movePiece(-1, 0);
+                break;
+            case MOVE_RIGHT:
+                engine.movePiece(1, 0);
+                break;
+            case SOFT_DROP:
+                engine.movePiece(0, 1);
+                break;
+            case ROTATE:
+                engine.rotatePiece();
+                break;
+            case HARD_DROP:
+                engine.hardDrop();
+                break;
+        }
+    }
+}
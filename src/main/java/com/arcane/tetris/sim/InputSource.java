@@ -0,0 +1,17 @@
+package com.arcane.tetris.sim;
+
+import com.arcane.tetris.engine.Player;
+
+/**
+ * Fonte de comandos para um jogador durante a simulação headless
+ * Chamada uma vez por tick lógico, antes do Player.update
+ */
+public interface InputSource {
+    /**
+     * Aplica os comandos deste tick
+     * @param player jogador controlado
+     * @param opponent adversário (null em partidas de um jogador)
+     * @param tick número do tick lógico atual
+     */
+    void onTick(Player player, Player opponent, long tick);
+}
@@ -0,0 +1,72 @@
+package com.arcane.tetris.sim;
+
+import com.arcane.tetris.engine.Player;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fonte de comandos roteirizada: executa ações e feitiços em ticks fixos
+ * Também serve para reproduzir um replay gravado tick a tick
+ */
+public class ScriptedInputSource implements InputSource {
+    private final TreeMap<Long, List<Command>> script;
+    
+    public ScriptedInputSource() {
+        this.script = new TreeMap<>();
+    }
+    
+    /**
+     * Agenda um comando de movimento para um tick
+     */
+    public ScriptedInputSource at(long tick, InputAction action) {
+        script.computeIfAbsent(tick, t -> new ArrayList<>()).add(new Command(action, null));
+        return this;
+    }
+    
+    /**
+     * Agenda o lançamento de um feitiço (no adversário) para um tick
+     */
+    public ScriptedInputSource castAt(long tick, String spellId) {
+        script.computeIfAbsent(tick, t -> new ArrayList<>()).add(new Command(null, spellId));
+        return this;
+    }
+    
+    /**
+     * Cria um roteiro a partir de um replay (tick -> ações)
+     */
+    public static ScriptedInputSource fromReplay(Map<Long, List<InputAction>> replay) {
+        ScriptedInputSource source = new ScriptedInputSource();
+        for (Map.Entry<Long, List<InputAction>> entry : replay.entrySet()) {
+            for (InputAction action : entry.getValue()) {
+                source.at(entry.getKey(), action);
+            }
+        }
+        return source;
+    }
+    
+    @Override
+    public void onTick(Player player, Player opponent, long tick) {
+        List<Command> commands = script.get(tick);
+        if (commands == null) {
+            return;
+        }
+        for (Command command : commands) {
+            command.apply(player, opponent);
+        }
+    }
+    
+    /**
+     * Comando agendado: uma ação de movimento ou o lançamento de um feitiço (o outro campo é null)
+     */
+    private record Command(InputAction action, String spellId) {
+        void apply(Player player, Player opponent) {
+            if (action != null) {
+                action.apply(player.getEngine());
+            } else {
+                player.castSpell(spellId, opponent);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.arcane.tetris.sim;
+
+import com.arcane.tetris.engine.FixedStepClock;
+import com.arcane.tetris.engine.Player;
+import com.arcane.tetris.engine.PlayerSnapshot;
+import com.arcane.tetris.util.Logger;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Roda os ticks de lógica dos jogadores numa thread própria, fora da thread do JavaFX
+ * Os comandos de entrada chegam por uma fila e rodam entre ticks; a cada tick um Frame
+ * imutável é publicado numa AtomicReference, de onde a renderização lê o mais recente
+ * Só a thread de simulação toca nos Players depois de start()
+ */
+public class SimulationThread implements Runnable {
+    private final Player player1;
+    private final Player player2;
+    private final FixedStepClock clock;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Frame> latest = new AtomicReference<>();
+    private volatile boolean running;
+    private volatile boolean paused;
+    private volatile Thread thread;
+    private long tick;
+    
+    /**
+     * Estado publicado ao fim de um tick
+     */
+    public static final class Frame {
+        private final long tick;
+        private final long publishedNanos;
+        private final PlayerSnapshot player1;
+        private final PlayerSnapshot player2;
+        
+        private Frame(long tick, PlayerSnapshot player1, PlayerSnapshot player2) {
+            this.tick = tick;
+            this.publishedNanos = System.nanoTime();
+            this.player1 = player1;
+            this.player2 = player2;
+        }
+        
+        public long getTick() {
+            return tick;
+        }
+        
+        /**
+         * Instante da publicação (System.nanoTime), base da interpolação
+         */
+        public long getPublishedNanos() {
+            return publishedNanos;
+        }
+        
+        public PlayerSnapshot getPlayer1() {
+            return player1;
+        }
+        
+        /**
+         * null em partida de um jogador
+         */
+        public PlayerSnapshot getPlayer2() {
+            return player2;
+        }
+    }
+    
+    /**
+     * @param player2 segundo jogador (null para partida de um jogador)
+     */
+    public SimulationThread(Player player1, Player player2, double step, int maxStepsPerFrame) {
+        this.player1 = player1;
+        this.player2 = player2;
+        this.clock = new FixedStepClock(step, maxStepsPerFrame);
+        publish();
+    }
+    
+    public void start() {
+        running = true;
+        Thread t = new Thread(this, "simulation");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+    
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+    
+    /**
+     * Agenda um comando (entrada do jogador, pausa) para rodar na thread de simulação
+     */
+    public void submit(Runnable command) {
+        commands.add(command);
+        LockSupport.unpark(thread);
+    }
+    
+    /**
+     * Pausada, a simulação ainda executa comandos mas não avança ticks
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        LockSupport.unpark(thread);
+    }
+    
+    /**
+     * Último estado publicado (nunca null)
+     */
+    public Frame latest() {
+        return latest.get();
+    }
+    
+    @Override
+    public void run() {
+        long last = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            double elapsed = (now - last) / 1_000_000_000.0;
+            last = now;
+            
+            boolean changed = runCommands();
+            if (paused) {
+                clock.reset();
+            } else {
+                int steps = clock.advance(elapsed);
+                for (int i = 0; i < steps; i++) {
+                    player1.update(clock.getStep());
+                    if (player2 != null) {
+                        player2.update(clock.getStep());
+                    }
+                    tick++;
+                }
+                changed |= steps > 0;
+            }
+            if (changed) {
+                publish();
+            }
+            
+            // Dorme até o próximo tick; comandos novos acordam a thread antes
+            double untilNext = paused ? clock.getStep() : (1.0 - clock.getAlpha()) * clock.getStep();
+            LockSupport.parkNanos((long) (untilNext * 1_000_000_000L));
+        }
+    }
+    
+    private boolean runCommands() {
+        boolean ran = false;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                Logger.error("Erro em comando da simulação", e);
+            }
+            ran = true;
+        }
+        return ran;
+    }
+    
+    private void publish() {
+        Frame previous = latest.get();
+        latest.set(new Frame(tick,
+            PlayerSnapshot.capture(player1, previous != null ? previous.player1 : null),
+            player2 != null ? PlayerSnapshot.capture(player2, previous != null ? previous.player2 : null) : null));
+    }
+}
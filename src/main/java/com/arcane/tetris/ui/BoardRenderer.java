@@ -0,0 +1,159 @@
+package com.arcane.tetris.ui;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+import com.arcane.tetris.engine.PlayerSnapshot;
+import com.arcane.tetris.engine.RotationTable;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+
+/**
+ * Desenha o tabuleiro de um jogador em três camadas sobrepostas
+ * - grade: desenhada uma vez na criação
+ * - blocos: só as linhas que mudaram desde o último retrato desenhado
+ * - peça: apaga as células que a peça ocupava e desenha as que ela ocupa agora
+ * Um quadro sem mudança no tabuleiro nem na peça não toca em nenhum canvas
+ */
+public class BoardRenderer {
+    private static final Color GRID_COLOR = Color.web("#1e3a5f");
+    private static final Color[] COLORS = {
+        Color.TRANSPARENT,
+        Color.CYAN,      // I
+        Color.YELLOW,    // O
+        Color.PURPLE,    // T
+        Color.ORANGE,    // L
+        Color.BLUE,      // J
+        Color.GREEN,     // S
+        Color.RED,       // Z
+        Color.GRAY       // Linha enviada
+    };
+    
+    private final Canvas gridLayer;
+    private final Canvas blockLayer;
+    private final Canvas pieceLayer;
+    private final StackPane node;
+    private final double cellSize;
+    private final double offsetY;
+    
+    private PlayerSnapshot drawn;   // último retrato desenhado na camada de blocos
+    private PieceType drawnType;    // peça desenhada na camada de peça (null: nenhuma)
+    private int drawnRotation;
+    private int drawnX;
+    private double drawnY;
+    
+    public BoardRenderer(double width, double height) {
+        gridLayer = new Canvas(width, height);
+        blockLayer = new Canvas(width, height);
+        pieceLayer = new Canvas(width, height);
+        node = new StackPane(gridLayer, blockLayer, pieceLayer);
+        cellSize = width / Board.WIDTH;
+        offsetY = (height - (Board.HEIGHT * cellSize)) / 2;
+        drawGrid();
+    }
+    
+    public Pane getNode() {
+        return node;
+    }
+    
+    /**
+     * @param sinceTick tempo decorrido desde o último tick de lógica (para interpolar)
+     */
+    public void render(PlayerSnapshot snapshot, double sinceTick) {
+        renderBlocks(snapshot);
+        renderPiece(snapshot, sinceTick);
+    }
+    
+    private void drawGrid() {
+        GraphicsContext gc = gridLayer.getGraphicsContext2D();
+        double width = gridLayer.getWidth();
+        gc.setStroke(GRID_COLOR);
+        gc.setLineWidth(1);
+        for (int y = 0; y <= Board.HEIGHT; y++) {
+            double yPos = offsetY + y * cellSize;
+            gc.strokeLine(0, yPos, width, yPos);
+        }
+        for (int x = 0; x <= Board.WIDTH; x++) {
+            double xPos = x * cellSize;
+            gc.strokeLine(xPos, offsetY, xPos, offsetY + Board.HEIGHT * cellSize);
+        }
+    }
+    
+    private void renderBlocks(PlayerSnapshot snapshot) {
+        int dirty = snapshot.changedRows(drawn);
+        drawn = snapshot;
+        if (dirty == 0) {
+            return;
+        }
+        
+        GraphicsContext gc = blockLayer.getGraphicsContext2D();
+        double width = blockLayer.getWidth();
+        while (dirty != 0) {
+            int y = Integer.numberOfTrailingZeros(dirty);
+            dirty &= dirty - 1;
+            
+            double rowY = offsetY + y * cellSize;
+            gc.clearRect(0, rowY, width, cellSize);
+            int rowMask = snapshot.getRowMask(y);
+            while (rowMask != 0) {
+                int x = Integer.numberOfTrailingZeros(rowMask);
+                rowMask &= rowMask - 1;
+                gc.setFill(COLORS[snapshot.getCell(x, y)]);
+                gc.fillRect(x * cellSize + 1, rowY + 1, cellSize - 2, cellSize - 2);
+            }
+        }
+    }
+    
+    private void renderPiece(PlayerSnapshot snapshot, double sinceTick) {
+        PieceType type = snapshot.getPieceType();
+        int rotation = snapshot.getPieceRotation();
+        int px = snapshot.getPieceX();
+        double py = snapshot.getPieceY() + snapshot.getFallOffset(sinceTick);
+        if (type == drawnType && rotation == drawnRotation && px == drawnX && py == drawnY) {
+            return; // Peça parada no mesmo lugar
+        }
+        
+        GraphicsContext gc = pieceLayer.getGraphicsContext2D();
+        clearPiece(gc);
+        if (type == null) {
+            return;
+        }
+        
+        gc.setFill(COLORS[type.ordinal() + 1]);
+        int size = RotationTable.size(type);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (RotationTable.isOccupied(type, rotation, row, col)) {
+                    double x = (px + col) * cellSize + 1;
+                    double y = offsetY + (py + row) * cellSize + 1;
+                    gc.fillRect(x, y, cellSize - 2, cellSize - 2);
+                }
+            }
+        }
+        drawnType = type;
+        drawnRotation = rotation;
+        drawnX = px;
+        drawnY = py;
+    }
+    
+    /**
+     * Apaga só as células da peça desenhada por último
+     */
+    private void clearPiece(GraphicsContext gc) {
+        if (drawnType == null) {
+            return;
+        }
+        int size = RotationTable.size(drawnType);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (RotationTable.isOccupied(drawnType, drawnRotation, row, col)) {
+                    gc.clearRect((drawnX + col) * cellSize, offsetY + (drawnY + row) * cellSize,
+                                 cellSize, cellSize);
+                }
+            }
+        }
+        drawnType = null;
+    }
+}
@@ -5,28 +5,38 @@ import com.arcane.tetris.ui.MainMenuController.GameMode;
 import javafx.animation.AnimationTimer;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
+import com.arcane.tetris.sim.SimulationThread;
+import com.arcane.tetris.util.Config;
 import com.arcane.tetris.util.Logger;
 
 /**
  * Controlador principal do jogo
  * Gerencia renderização, input e loop do jogo
+ * A lógica roda em ticks fixos (LOGIC_STEP), independente da taxa de quadros; a
+ * renderização interpola a queda da peça entre um tick e o próximo
+ * Com "simulationThread" na configuração os ticks rodam numa SimulationThread: a entrada
+ * vai para ela como comandos e a renderização só lê os retratos publicados
  */
 public class GameController {
+    private static final double LOGIC_STEP = 1.0 / 120.0;
+    private static final int MAX_STEPS_PER_FRAME = 8; // recupera até ~66 ms de atraso por frame
+    
     private BorderPane root;
     private Stage stage;
     private GameMode mode;
     private Player player1;
     private Player player2;
-    private Canvas canvas1, canvas2;
+    private BoardRenderer renderer1, renderer2;
     private AnimationTimer gameLoop;
+    private final FixedStepClock clock = new FixedStepClock(LOGIC_STEP, MAX_STEPS_PER_FRAME);
+    private SimulationThread simulation; // null: lógica na thread do JavaFX
+    private PlayerSnapshot snapshot1, snapshot2;
     private long lastUpdate;
     private HUDController hud1, hud2;
     private boolean isPaused;
@@ -102,21 +112,21 @@ public class GameController {
         playerLabel.setFont(javafx.scene.text.Font.font("Arial", javafx.scene.text.FontWeight.BOLD, 16));
         playerLabel.setTextFill(Color.web(playerNum == 1 ? "#4a90e2" : "#e24a4a"));
         
-        // Canvas do jogo
-        Canvas canvas = new Canvas(300, 600);
+        // Tabuleiro do jogo
+        BoardRenderer renderer = new BoardRenderer(300, 600);
         
         if (playerNum == 1) {
-            canvas1 = canvas;
+            renderer1 = renderer;
             hud1 = new HUDController(player, 1);
         } else {
-            canvas2 = canvas;
+            renderer2 = renderer;
             hud2 = new HUDController(player, 2);
         }
         
         // HUD
         VBox hud = playerNum == 1 ? hud1.getRoot() : hud2.getRoot();
         
-        pane.getChildren().addAll(playerLabel, canvas, hud);
+        pane.getChildren().addAll(playerLabel, renderer.getNode(), hud);
         return pane;
     }
     
@@ -133,7 +143,17 @@ public class GameController {
         }
         
         KeyCode key = event.getCode();
-        
+        if (key == KeyCode.ESCAPE) {
+            togglePause();
+            return;
+        }
+        dispatch(() -> applyKey(key));
+    }
+    
+    /**
+     * Aplica a tecla aos jogadores (na thread de simulação, se houver)
+     */
+    private void applyKey(KeyCode key) {
         // Player 1 controls
         if (key == KeyCode.A || key == KeyCode.LEFT) {
             player1.getEngine().movePiece(-1, 0);
@@ -202,10 +222,6 @@ public class GameController {
                 player2.castSpell("Shield", player1);
             }
         }
-        
-        if (key == KeyCode.ESCAPE) {
-            togglePause();
-        }
     }
     
     @SuppressWarnings("unused")
@@ -214,35 +230,58 @@ public class GameController {
     }
     
     private void startGameLoop() {
+        if (Boolean.TRUE.equals(Config.getInstance().get("simulationThread", false))) {
+            simulation = new SimulationThread(player1, player2, LOGIC_STEP, MAX_STEPS_PER_FRAME);
+            simulation.start();
+            Logger.info("Lógica do jogo na thread de simulação");
+        }
+        
         gameLoop = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (isPaused) {
-                    return;
-                }
-                
-                double deltaTime = (now - lastUpdate) / 1_000_000_000.0; // Converter para segundos
-                lastUpdate = now;
-                
-                // Atualiza jogadores
-                player1.update(deltaTime);
-                if (player2 != null) {
-                    player2.update(deltaTime);
+                double sinceTick;
+                if (simulation != null) {
+                    // Só lê o último retrato publicado; a lógica avança na outra thread
+                    SimulationThread.Frame frame = simulation.latest();
+                    snapshot1 = frame.getPlayer1();
+                    snapshot2 = frame.getPlayer2();
+                    sinceTick = isPaused ? 0.0
+                        : Math.min(LOGIC_STEP, Math.max(0, now - frame.getPublishedNanos()) / 1_000_000_000.0);
+                } else {
+                    if (isPaused) {
+                        lastUpdate = now; // O tempo pausado não vira atraso a recuperar
+                        return;
+                    }
+                    
+                    double deltaTime = (now - lastUpdate) / 1_000_000_000.0; // Converter para segundos
+                    lastUpdate = now;
+                    
+                    // Atualiza jogadores em ticks fixos
+                    int steps = clock.advance(deltaTime);
+                    for (int i = 0; i < steps; i++) {
+                        player1.update(LOGIC_STEP);
+                        if (player2 != null) {
+                            player2.update(LOGIC_STEP);
+                        }
+                    }
+                    snapshot1 = PlayerSnapshot.capture(player1, snapshot1);
+                    snapshot2 = player2 != null ? PlayerSnapshot.capture(player2, snapshot2) : null;
+                    sinceTick = clock.getAlpha() * LOGIC_STEP;
                 }
                 
                 // Renderiza
-                render();
+                render(sinceTick);
                 
                 // Atualiza HUD
-                hud1.update();
-                if (hud2 != null) {
-                    hud2.update();
+                hud1.update(snapshot1);
+                if (hud2 != null && snapshot2 != null) {
+                    hud2.update(snapshot2);
                 }
                 
                 // Verifica game over
-                if (player1.getEngine().isGameOver()) {
+                if (snapshot1.isGameOver()) {
                     gameOver("Player 2 Wins!");
-                } else if (player2 != null && player2.getEngine().isGameOver()) {
+                } else if (snapshot2 != null && snapshot2.isGameOver()) {
                     gameOver("Player 1 Wins!");
                 }
             }
@@ -250,93 +289,45 @@ public class GameController {
         gameLoop.start();
     }
     
-    private void render() {
-        renderBoard(canvas1, player1);
-        if (canvas2 != null && player2 != null) {
-            renderBoard(canvas2, player2);
+    /**
+     * Executa uma ação sobre os jogadores na thread que é dona deles
+     */
+    private void dispatch(Runnable action) {
+        if (simulation != null) {
+            simulation.submit(action);
+        } else {
+            action.run();
         }
     }
     
-    private void renderBoard(Canvas canvas, Player player) {
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-        
-        GameEngine engine = player.getEngine();
-        Board board = engine.getBoard();
-        int[][] grid = board.getGrid();
-        
-        double cellSize = canvas.getWidth() / Board.WIDTH;
-        double offsetY = (canvas.getHeight() - (Board.HEIGHT * cellSize)) / 2;
-        
-        // Desenha grid
-        gc.setStroke(Color.web("#1e3a5f"));
-        gc.setLineWidth(1);
-        for (int y = 0; y <= Board.HEIGHT; y++) {
-            double yPos = offsetY + y * cellSize;
-            gc.strokeLine(0, yPos, canvas.getWidth(), yPos);
-        }
-        for (int x = 0; x <= Board.WIDTH; x++) {
-            double xPos = x * cellSize;
-            gc.strokeLine(xPos, offsetY, xPos, offsetY + Board.HEIGHT * cellSize);
-        }
-        
-        // Desenha blocos
-        Color[] colors = {
-            Color.TRANSPARENT,
-            Color.CYAN,      // I
-            Color.YELLOW,    // O
-            Color.PURPLE,    // T
-            Color.ORANGE,    // L
-            Color.BLUE,      // J
-            Color.GREEN,     // S
-            Color.RED,       // Z
-            Color.GRAY       // Linha enviada
-        };
-        
-        for (int y = 0; y < Board.HEIGHT; y++) {
-            for (int x = 0; x < Board.WIDTH; x++) {
-                int cell = grid[y][x];
-                if (cell != 0) {
-                    gc.setFill(colors[cell]);
-                    gc.fillRect(x * cellSize + 1, offsetY + y * cellSize + 1,
-                               cellSize - 2, cellSize - 2);
-                }
-            }
-        }
-        
-        // Desenha peça atual
-        Piece current = engine.getCurrentPiece();
-        if (current != null) {
-            int[][] shape = current.getShape();
-            int px = engine.getCurrentX();
-            int py = engine.getCurrentY();
-            
-            Color pieceColor = colors[current.getType().ordinal() + 1];
-            gc.setFill(pieceColor);
-            
-            for (int row = 0; row < shape.length; row++) {
-                for (int col = 0; col < shape[row].length; col++) {
-                    if (shape[row][col] != 0) {
-                        double x = (px + col) * cellSize + 1;
-                        double y = offsetY + (py + row) * cellSize + 1;
-                        gc.fillRect(x, y, cellSize - 2, cellSize - 2);
-                    }
-                }
-            }
+    /**
+     * @param sinceTick tempo decorrido desde o último tick de lógica (para interpolar)
+     */
+    private void render(double sinceTick) {
+        renderer1.render(snapshot1, sinceTick);
+        if (renderer2 != null && snapshot2 != null) {
+            renderer2.render(snapshot2, sinceTick);
         }
     }
     
     private void togglePause() {
         isPaused = !isPaused;
-        player1.getEngine().setPaused(isPaused);
-        if (player2 != null) {
-            player2.getEngine().setPaused(isPaused);
+        boolean paused = isPaused;
+        dispatch(() -> {
+            player1.getEngine().setPaused(paused);
+            if (player2 != null) {
+                player2.getEngine().setPaused(paused);
+            }
+        });
+        if (simulation != null) {
+            simulation.setPaused(paused);
         }
         Logger.info(isPaused ? "Jogo pausado" : "Jogo retomado");
     }
     
     private void gameOver(String message) {
         gameLoop.stop();
+        stopSimulation();
         Logger.info("Fim de Jogo: " + message);
         // TODO: Mostrar tela de game over
     }
@@ -345,10 +336,18 @@ public class GameController {
         if (gameLoop != null) {
             gameLoop.stop();
         }
+        stopSimulation();
         MainMenuController menu = new MainMenuController(stage);
         stage.getScene().setRoot(menu.getRoot());
     }
     
+    private void stopSimulation() {
+        if (simulation != null) {
+            simulation.stop();
+            simulation = null;
+        }
+    }
+    
     public BorderPane getRoot() {
         return root;
     }
@@ -1,6 +1,7 @@
 package com.arcane.tetris.ui;
 
 import com.arcane.tetris.engine.Player;
+import com.arcane.tetris.engine.PlayerSnapshot;
 import com.arcane.tetris.engine.Spell;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -9,12 +10,19 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Controlador do HUD (Heads-Up Display)
  * Exibe pontuação, mana, cooldowns e próxima peça
+ * Só mexe nos nós da cena quando um valor exibido muda: os números são relidos apenas quando
+ * a versão de estatísticas do retrato avança, e as barras de recarga andam em passos de 1%
  */
 public class HUDController {
+    private static final double BAR_STEPS = 100.0; // resolução das barras de recarga
+    
     private VBox root;
     private Player player;
     private int playerNumber; // 1 ou 2
@@ -23,6 +31,11 @@ public class HUDController {
     private Text levelText;
     private ProgressBar manaBar;
     private VBox spellsBox;
+    private final List<Integer> spellIndexes = new ArrayList<>();
+    private final List<ProgressBar> spellBars = new ArrayList<>();
+    private double[] shownReadiness;
+    private long shownStats = -1;
+    private int shownScore = -1, shownLines = -1, shownLevel = -1, shownMana = -1;
     
     public HUDController(Player player) {
         this(player, 1);
@@ -70,6 +83,8 @@ public class HUDController {
                 spellsBox.getChildren().add(spellRow);
             }
         }
+        shownReadiness = new double[spellBars.size()];
+        Arrays.fill(shownReadiness, -1);
         
         root.getChildren().addAll(
             scoreText,
@@ -111,7 +126,8 @@ public class HUDController {
         row.getChildren().addAll(nameAndKey, cooldownBar);
         
         // Armazena a referência para atualização
-        cooldownBar.setUserData(spell);
+        spellIndexes.add(Player.spellIndex(spell.getId()));
+        spellBars.add(cooldownBar);
         
         return row;
     }
@@ -171,31 +187,39 @@ public class HUDController {
         }
     }
     
-    public void update() {
+    /**
+     * Atualiza a partir do retrato do último tick (não lê o Player, que pode estar em outra thread)
+     */
+    public void update(PlayerSnapshot snapshot) {
         // Atualiza informações do jogo
-        scoreText.setText("Pontuação: " + player.getEngine().getScore());
-        linesText.setText("Linhas: " + player.getEngine().getLines());
-        levelText.setText("Nível: " + player.getEngine().getLevel());
-        
-        // Atualiza barra de mana
-        double manaPercent = (double) player.getMana() / player.getMaxMana();
-        manaBar.setProgress(manaPercent);
+        if (snapshot.getStatsVersion() != shownStats) {
+            shownStats = snapshot.getStatsVersion();
+            if (snapshot.getScore() != shownScore) {
+                shownScore = snapshot.getScore();
+                scoreText.setText("Pontuação: " + shownScore);
+            }
+            if (snapshot.getLines() != shownLines) {
+                shownLines = snapshot.getLines();
+                linesText.setText("Linhas: " + shownLines);
+            }
+            if (snapshot.getLevel() != shownLevel) {
+                shownLevel = snapshot.getLevel();
+                levelText.setText("Nível: " + shownLevel);
+            }
+            
+            // Atualiza barra de mana
+            if (snapshot.getMana() != shownMana) {
+                shownMana = snapshot.getMana();
+                manaBar.setProgress((double) shownMana / snapshot.getMaxMana());
+            }
+        }
         
         // Atualiza cooldowns dos feitiços (agora em segundos, não ticks)
-        for (var node : spellsBox.getChildren()) {
-            if (node instanceof HBox) {
-                HBox row = (HBox) node;
-                for (var child : row.getChildren()) {
-                    if (child instanceof ProgressBar) {
-                        ProgressBar bar = (ProgressBar) child;
-                        Spell spell = (Spell) bar.getUserData();
-                        if (spell != null) {
-                            double cooldownPercent = 1.0 - (spell.getRemainingCooldown() / 
-                                spell.getCooldownSeconds());
-                            bar.setProgress(Math.max(0, Math.min(1, cooldownPercent)));
-                        }
-                    }
-                }
+        for (int i = 0; i < spellBars.size(); i++) {
+            double readiness = Math.floor(snapshot.getSpellReadiness(spellIndexes.get(i)) * BAR_STEPS) / BAR_STEPS;
+            if (readiness != shownReadiness[i]) {
+                shownReadiness[i] = readiness;
+                spellBars.get(i).setProgress(readiness);
             }
         }
     }
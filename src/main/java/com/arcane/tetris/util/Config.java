@@ -26,7 +26,7 @@ public class Config {
         loadConfig();
     }
     
-    public static Config getInstance() {
+    public static synchronized Config getInstance() {
         if (instance == null) {
             instance = new Config();
         }
@@ -73,6 +73,8 @@ public class Config {
         aiWeights.put("bumpiness", 0.3);
         aiWeights.put("lines", -1.0);
         config.put("aiWeights", aiWeights);
+        config.put("aiCacheSize", 16384);
+        config.put("simulationThread", false);
     }
     
     /**
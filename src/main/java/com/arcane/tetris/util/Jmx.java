@@ -0,0 +1,41 @@
+package com.arcane.tetris.util;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registro de MBeans no servidor de plataforma (jconsole, VisualVM, jcmd)
+ * Falhas só são logadas: métricas nunca derrubam o jogo
+ */
+public final class Jmx {
+    public static final String DOMAIN = "com.arcane.tetris";
+    
+    private Jmx() {
+    }
+    
+    /**
+     * Registra o MBean como DOMAIN:properties; retorna o nome registrado ou null
+     */
+    public static ObjectName register(String properties, Object mbean) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, name);
+            return name;
+        } catch (JMException e) {
+            Logger.debug("MBean não registrado (" + properties + "): " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public static void unregister(ObjectName name) {
+        if (name == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            Logger.debug("MBean já removido: " + name);
+        }
+    }
+}
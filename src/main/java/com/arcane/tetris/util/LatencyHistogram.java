@@ -0,0 +1,109 @@
+package com.arcane.tetris.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências com buckets log-lineares (no estilo do HdrHistogram)
+ * Cada potência de 2 é dividida em 16 sub-buckets, então o erro relativo fica abaixo de 1/16
+ * em qualquer escala. record() não aloca e pode ser chamado de várias threads
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    
+    /**
+     * Registra um valor (negativos contam como 0)
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+    
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+    
+    /**
+     * Maior valor que cai no bucket
+     */
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+    
+    /**
+     * Valor abaixo do qual estão percentile% das amostras (limite superior do bucket)
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * Math.min(100.0, percentile) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), max.get());
+            }
+        }
+        return max.get();
+    }
+    
+    public long getTotalCount() {
+        return total.get();
+    }
+    
+    public double getMean() {
+        long count = total.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+    
+    public long getMax() {
+        return max.get();
+    }
+    
+    /**
+     * Zera o histograma (amostras registradas durante o reset podem se perder)
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+    
+    /**
+     * Resumo legível com os valores divididos por unitScale (ex.: 1000 para ns → µs)
+     */
+    public String summary(double unitScale, String unit) {
+        return String.format("n=%d mean=%.1f%s p50=%.1f%s p90=%.1f%s p99=%.1f%s max=%.1f%s",
+                             getTotalCount(),
+                             getMean() / unitScale, unit,
+                             getValueAtPercentile(50) / unitScale, unit,
+                             getValueAtPercentile(90) / unitScale, unit,
+                             getValueAtPercentile(99) / unitScale, unit,
+                             getMax() / unitScale, unit);
+    }
+}
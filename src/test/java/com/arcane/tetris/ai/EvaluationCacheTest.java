@@ -0,0 +1,75 @@
+package com.arcane.tetris.ai;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para EvaluationCache
+ */
+class EvaluationCacheTest {
+    
+    @Test
+    void testHitMissAndEviction() {
+        EvaluationCache cache = new EvaluationCache(2); // um único conjunto de 2 vias
+        
+        assertTrue(Double.isNaN(cache.get(1L)));
+        cache.put(1L, 10.0);
+        cache.put(2L, 20.0);
+        assertEquals(10.0, cache.get(1L));
+        
+        // 2 é o menos recente: é despejado
+        cache.put(3L, 30.0);
+        assertEquals(1, cache.getEvictions());
+        assertTrue(Double.isNaN(cache.get(2L)));
+        assertEquals(10.0, cache.get(1L));
+        assertEquals(30.0, cache.get(3L));
+        
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0.6, cache.getHitRate(), 1e-9);
+    }
+    
+    @Test
+    void testConcurrentUseNeverReturnsAnotherKeysValue() throws InterruptedException {
+        EvaluationCache cache = new EvaluationCache(64); // pequeno: muitas colisões entre threads
+        boolean[] wrong = {false};
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = (i * 4L + offset) % 1000;
+                    double value = cache.get(key);
+                    if (!Double.isNaN(value) && value != key * 0.5) {
+                        wrong[0] = true;
+                    }
+                    cache.put(key, key * 0.5);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(wrong[0]);
+    }
+    
+    @Test
+    void testAiReusesEvaluations() {
+        AiController ai = new AiController(new Board(), 0.5, 0.7, 0.3, -1.0);
+        ai.configureLookahead(2, AiController.DEFAULT_BEAM_WIDTH, 0); // sem limite de tempo
+        ai.searchAhead(new PieceType[] {PieceType.O, PieceType.O}, 2);
+        
+        // Duas peças O em colunas trocadas produzem o mesmo board
+        assertTrue(ai.getEvaluationCache().getHits() > 0);
+    }
+    
+    @Test
+    void testExplicitWeightsAcceptCacheSize() {
+        assertEquals(AiController.DEFAULT_CACHE_SIZE,
+                     new AiController(new Board(), 0.5, 0.7, 0.3, -1.0).getEvaluationCache().getCapacity());
+        assertEquals(1024, new AiController(new Board(), 0.5, 0.7, 0.3, -1.0, 1024).getEvaluationCache().getCapacity());
+    }
+}
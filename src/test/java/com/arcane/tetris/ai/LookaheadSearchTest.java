@@ -0,0 +1,74 @@
+package com.arcane.tetris.ai;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para LookaheadSearch
+ */
+public class LookaheadSearchTest {
+    
+    @Test
+    void testTimeoutFallsBackToStaticBest() {
+        Board board = SearchFixtures.playedBoard();
+        PieceType[] pieces = {PieceType.S, PieceType.L, PieceType.I};
+        
+        // Um nível só: a melhor nota estática
+        LookaheadSearch shallow = new LookaheadSearch(SearchFixtures::evaluate, 1, 6);
+        assertTrue(shallow.search(board, pieces, pieces.length, 0));
+        
+        // Orçamento de 1 ns: nada é expandido e a jogada não pode ser um candidato qualquer
+        LookaheadSearch deep = new LookaheadSearch(SearchFixtures::evaluate, 3, 6);
+        assertTrue(deep.search(board, pieces, pieces.length, 1));
+        assertTrue(deep.isTimedOut());
+        assertEquals(shallow.getBestX(), deep.getBestX());
+        assertEquals(shallow.getBestRotation(), deep.getBestRotation());
+        assertEquals(shallow.getBestDropY(), deep.getBestDropY());
+        assertEquals(shallow.getBestScore(), deep.getBestScore());
+    }
+    
+    @Test
+    void testTimeoutInsideFirstSubtreeKeepsStaticBest() {
+        Board board = SearchFixtures.playedBoard();
+        PieceType[] pieces = {PieceType.S, PieceType.L, PieceType.I};
+        LookaheadSearch shallow = new LookaheadSearch(SearchFixtures::evaluate, 1, 6);
+        assertTrue(shallow.search(board, pieces, pieces.length, 0));
+        int rootMoves = new MoveGenerator(b -> 0, true).generate(board, PieceType.S, new MoveBuffer());
+        
+        // O orçamento estoura durante a primeira subárvore: a nota parcial dela não pode
+        // competir com as notas rasas dos candidatos não explorados
+        int[] calls = {0};
+        MoveGenerator.Evaluator slow = b -> {
+            if (++calls[0] == rootMoves + 1) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return SearchFixtures.evaluate(b);
+        };
+        LookaheadSearch deep = new LookaheadSearch(slow, 3, 6);
+        assertTrue(deep.search(board, pieces, pieces.length, 200_000_000L));
+        assertTrue(deep.isTimedOut());
+        assertEquals(shallow.getBestX(), deep.getBestX());
+        assertEquals(shallow.getBestRotation(), deep.getBestRotation());
+        assertEquals(shallow.getBestScore(), deep.getBestScore());
+    }
+    
+    @Test
+    void testUnlimitedBudgetSearchesEveryLevel() {
+        Board board = SearchFixtures.playedBoard();
+        PieceType[] pieces = {PieceType.S, PieceType.L, PieceType.I};
+        LookaheadSearch deep = new LookaheadSearch(SearchFixtures::evaluate, 3, 6);
+        assertTrue(deep.search(board, pieces, pieces.length, 0));
+        assertFalse(deep.isTimedOut());
+        
+        // A nota da busca profunda é a de um tabuleiro com as três peças colocadas
+        LookaheadSearch shallow = new LookaheadSearch(SearchFixtures::evaluate, 1, 6);
+        shallow.search(board, pieces, pieces.length, 0);
+        assertNotEquals(shallow.getBestScore(), deep.getBestScore());
+    }
+}
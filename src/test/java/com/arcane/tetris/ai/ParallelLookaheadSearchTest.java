@@ -0,0 +1,87 @@
+package com.arcane.tetris.ai;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ParallelLookaheadSearch
+ */
+public class ParallelLookaheadSearchTest {
+    
+    @Test
+    void testParallelMatchesSequential() {
+        Board board = SearchFixtures.playedBoard();
+        PieceType[] pieces = {PieceType.S, PieceType.L, PieceType.I};
+        LookaheadSearch sequential = new LookaheadSearch(SearchFixtures::evaluate, 3, 8);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelLookaheadSearch parallel = new ParallelLookaheadSearch(
+                pool, SearchFixtures::evaluate, 3, 8, 2, 1);
+            
+            assertTrue(sequential.search(board, pieces, pieces.length, 0));
+            assertTrue(parallel.search(board, pieces, pieces.length, 0));
+            
+            assertEquals(sequential.getBestScore(), parallel.getBestScore());
+            assertEquals(sequential.getBestX(), parallel.getBestX());
+            assertEquals(sequential.getBestRotation(), parallel.getBestRotation());
+            assertEquals(sequential.getBestDropY(), parallel.getBestDropY());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    void testAiParallelSearchWithSharedCacheMatchesSequential() {
+        Board board = new Board();
+        board.placePiece(PieceType.I, 0, 0, 18);
+        board.placePiece(PieceType.T, 2, 7, 17);
+        PieceType[] pieces = {PieceType.T, PieceType.Z, PieceType.O, PieceType.J};
+        
+        AiController sequential = new AiController(board, 0.5, 0.7, 0.3, -1.0);
+        sequential.configureLookahead(4, 5, 0);
+        assertTrue(sequential.searchAhead(pieces, pieces.length));
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int grain : new int[] {1, 3, 100}) {
+                AiController parallel = new AiController(board, 0.5, 0.7, 0.3, -1.0);
+                parallel.configureLookahead(4, 5, 0);
+                parallel.enableParallelSearch(pool, 2, grain);
+                assertTrue(parallel.searchAhead(pieces, pieces.length));
+                
+                ParallelLookaheadSearch search = parallel.getParallelLookahead();
+                assertEquals(grain, search.getGrain());
+                assertEquals(sequential.getLookahead().getBestScore(), search.getBestScore());
+                assertEquals(sequential.getLookahead().getBestX(), search.getBestX());
+                assertEquals(sequential.getLookahead().getBestRotation(), search.getBestRotation());
+                assertTrue(parallel.getEvaluationCache().getMisses() > 0); // Os workers passam pelo cache compartilhado
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    void testTinyBudgetFallsBackToStaticBest() {
+        Board board = new Board();
+        board.placePiece(PieceType.O, 0, 4, 18);
+        PieceType[] pieces = {PieceType.S, PieceType.L, PieceType.I};
+        LookaheadSearch shallow = new LookaheadSearch(SearchFixtures::evaluate, 1, 6);
+        assertTrue(shallow.search(board, pieces, pieces.length, 0));
+        
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ParallelLookaheadSearch parallel = new ParallelLookaheadSearch(
+                pool, SearchFixtures::evaluate, 3, 6, 2, 1);
+            assertTrue(parallel.search(board, pieces, pieces.length, 1));
+            assertTrue(parallel.isTimedOut());
+            assertEquals(shallow.getBestScore(), parallel.getBestScore());
+            assertEquals(shallow.getBestX(), parallel.getBestX());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.arcane.tetris.ai;
+
+import com.arcane.tetris.engine.Board;
+import com.arcane.tetris.engine.PieceType;
+
+/**
+ * Avaliação e tabuleiro comuns aos testes de busca
+ */
+final class SearchFixtures {
+    
+    private SearchFixtures() {}
+    
+    /**
+     * Heurística com os pesos usados nos testes de busca
+     */
+    static double evaluate(Board board) {
+        return 0.5 * board.getAggregateHeight() + 0.7 * board.getHoles()
+             + 0.3 * board.getBumpiness() - board.getLinesCleared();
+    }
+    
+    /**
+     * Tabuleiro de meio de partida: peças no fundo e uma linha de lixo
+     */
+    static Board playedBoard() {
+        Board board = new Board();
+        board.placePiece(PieceType.I, 0, 0, 18);
+        board.placePiece(PieceType.O, 0, 4, 18);
+        board.placePiece(PieceType.T, 2, 7, 17);
+        board.pushLine(3);
+        return board;
+    }
+}
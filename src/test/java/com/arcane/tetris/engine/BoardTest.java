@@ -56,6 +56,22 @@ public class BoardTest {
         assertEquals(1, board.getLinesCleared());
     }
     
+    @Test
+    void testClearLinesKeepsRowsAboveWithColors() {
+        // Linha 19 completa (I + I + O) e a metade de cima do O sobra na linha 18
+        board.placePiece(new Piece(PieceType.I), 0, 18);
+        board.placePiece(new Piece(PieceType.I), 4, 18);
+        board.placePiece(new Piece(PieceType.O), 8, 18);
+        
+        assertEquals(1, board.clearLines());
+        
+        int[][] grid = board.getGrid();
+        assertEquals(PieceType.O.ordinal() + 1, grid[19][8]);
+        assertEquals(PieceType.O.ordinal() + 1, grid[19][9]);
+        assertFalse(board.isOccupied(0, 19));
+        assertFalse(board.isOccupied(8, 18));
+    }
+    
     @Test
     void testPushLine() {
         board.pushLine();
@@ -91,5 +107,87 @@ public class BoardTest {
         
         assertTrue(board.isGameOver());
     }
+    
+    @Test
+    void testIncrementalMetricsMatchFullScan() {
+        board.placePiece(new Piece(PieceType.I), 0, 18);
+        board.placePiece(new Piece(PieceType.T), 4, 16);
+        board.placePiece(new Piece(PieceType.O), 8, 17);
+        board.pushLine();
+        board.placePiece(new Piece(PieceType.S), 1, 14);
+        board.clearLines();
+        board.removeBottomCompleteLine();
+        board.placePiece(new Piece(PieceType.J), 5, 15);
+        board.removeTopTwoCompleteLines();
+        
+        // Recalcula tudo a partir do grid e compara com os valores mantidos pelo board
+        int[][] grid = board.getGrid();
+        int aggregate = 0;
+        int holes = 0;
+        int[] heights = new int[Board.WIDTH];
+        for (int x = 0; x < Board.WIDTH; x++) {
+            boolean found = false;
+            for (int y = 0; y < Board.HEIGHT; y++) {
+                if (grid[y][x] != 0) {
+                    if (!found) {
+                        heights[x] = Board.HEIGHT - y;
+                    }
+                    found = true;
+                } else if (found) {
+                    holes++;
+                }
+            }
+            aggregate += heights[x];
+            assertEquals(heights[x], board.getColumnHeight(x));
+        }
+        int bumpiness = 0;
+        for (int x = 0; x < Board.WIDTH - 1; x++) {
+            bumpiness += Math.abs(heights[x] - heights[x + 1]);
+        }
+        
+        assertEquals(aggregate, board.getAggregateHeight());
+        assertEquals(holes, board.getHoles());
+        assertEquals(bumpiness, board.getBumpiness());
+        assertEquals(holes, board.copy().getHoles());
+    }
+    
+    @Test
+    void testViewReadsWithoutCopy() {
+        BoardView view = board;
+        long version = view.getVersion();
+        
+        board.placePiece(new Piece(PieceType.O), 4, 18);
+        assertTrue(view.getVersion() > version);
+        assertEquals(0b110000, view.getRowMask(19));
+        assertEquals(PieceType.O.ordinal() + 1, view.getCell(5, 18));
+        
+        // Nenhuma linha completa: nada muda, versão também não
+        version = view.getVersion();
+        board.clearLines();
+        assertEquals(version, view.getVersion());
+    }
+    
+    @Test
+    void testHashDependsOnlyOnOccupancy() {
+        Board other = new Board();
+        
+        // Mesmas células ocupadas por sequências diferentes
+        board.placePiece(new Piece(PieceType.O), 0, 18);
+        board.placePiece(new Piece(PieceType.O), 4, 18);
+        other.placePiece(new Piece(PieceType.O), 4, 18);
+        other.placePiece(new Piece(PieceType.O), 0, 18);
+        assertEquals(board.getHash(), other.getHash());
+        assertNotEquals(0L, board.getHash());
+        
+        assertEquals(board.getHash(), board.copy().getHash());
+        
+        // Completa as duas linhas: após removê-las o hash volta ao do board vazio
+        for (int x = 2; x < Board.WIDTH; x += 2) {
+            if (x != 4) {
+                board.placePiece(new Piece(PieceType.O), x, 18);
+            }
+        }
+        assertEquals(2, board.clearLines());
+        assertEquals(0L, board.getHash());
+    }
 }
-
@@ -0,0 +1,67 @@
+package com.arcane.tetris.engine;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para EffectScheduler e os efeitos temporários do GameEngine
+ */
+class EffectSchedulerTest {
+    
+    @Test
+    void testRunsInDueOrderAndSkipsCancelled() {
+        EffectScheduler scheduler = new EffectScheduler();
+        List<String> ran = new ArrayList<>();
+        scheduler.schedule(2.0, () -> ran.add("b"));
+        scheduler.schedule(1.0, () -> ran.add("a"));
+        scheduler.schedule(2.0, () -> ran.add("c"));
+        scheduler.schedule(1.5, () -> ran.add("x")).cancel();
+        
+        scheduler.advance(0.5);
+        assertTrue(ran.isEmpty());
+        scheduler.advance(1.6);
+        assertEquals(List.of("a", "b", "c"), ran);
+        assertEquals(0, scheduler.getPendingCount());
+    }
+    
+    @Test
+    void testTimeSlowExpiresOnGameTime() {
+        GameEngine engine = new GameEngine(1L);
+        engine.applyTimeSlow(0.5, 8.0);
+        assertEquals(0.5, engine.getTimeSlowMultiplier());
+        
+        // Pausado o relógio não anda
+        engine.setPaused(true);
+        engine.update(20.0);
+        assertEquals(0.5, engine.getTimeSlowMultiplier());
+        engine.setPaused(false);
+        
+        for (int i = 0; i < 7; i++) {
+            engine.update(1.0);
+        }
+        assertEquals(0.5, engine.getTimeSlowMultiplier());
+        engine.update(1.0);
+        assertEquals(1.0, engine.getTimeSlowMultiplier());
+    }
+    
+    @Test
+    void testShieldExpiresWithCasterClock() {
+        Player player = new Player("p1", "P1", 1L);
+        player.addMana(100);
+        assertTrue(player.castSpell("Shield", null));
+        player.update(0.1);
+        assertTrue(player.isShielded());
+        
+        player.getEngine().setPaused(true);
+        player.update(30.0);
+        player.getEngine().setPaused(false);
+        assertTrue(player.getSpells().get("Shield").isActive());
+        
+        for (int i = 0; i < 80; i++) {
+            player.update(0.1);
+        }
+        assertFalse(player.isShielded());
+    }
+}
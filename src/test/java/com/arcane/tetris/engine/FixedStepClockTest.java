@@ -0,0 +1,50 @@
+package com.arcane.tetris.engine;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para FixedStepClock e a queda em passo fixo do GameEngine
+ */
+class FixedStepClockTest {
+    
+    @Test
+    void testConvertsFrameTimeToFixedSteps() {
+        FixedStepClock clock = new FixedStepClock(1.0 / 120.0, 8);
+        int steps = 0;
+        for (int frame = 0; frame < 60; frame++) {
+            steps += clock.advance(1.0 / 60.0);
+        }
+        assertEquals(120, steps);
+        
+        // Meio tick acumulado: alpha para interpolação
+        assertEquals(0, clock.advance(1.0 / 240.0));
+        assertEquals(0.5, clock.getAlpha(), 1e-6);
+    }
+    
+    @Test
+    void testCapsCatchUpAfterStall() {
+        FixedStepClock clock = new FixedStepClock(0.01, 5);
+        assertEquals(5, clock.advance(1.0));
+        assertEquals(0.95, clock.getDroppedTime(), 1e-9);
+        assertEquals(0.0, clock.getAlpha());
+        assertEquals(1, clock.advance(0.01));
+    }
+    
+    @Test
+    void testFallCarriesRemainder() {
+        GameEngine engine = new GameEngine(3L);
+        int startY = engine.getCurrentY();
+        
+        // 1 linha/s em passos de 0,375 s: 3 linhas em 3 s (sem zerar o resto a cada linha)
+        for (int i = 0; i < 8; i++) {
+            engine.update(0.375);
+        }
+        assertEquals(startY + 3, engine.getCurrentY());
+        
+        // Passo longo cai várias linhas de uma vez
+        engine.update(2.5);
+        assertEquals(startY + 5, engine.getCurrentY());
+        assertEquals(0.5, engine.getFallOffset(0.0), 1e-9);
+    }
+}
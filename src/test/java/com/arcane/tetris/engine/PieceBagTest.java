@@ -1,5 +1,6 @@
 package com.arcane.tetris.engine;
 
+import java.util.SplittableRandom;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,5 +34,15 @@ public class PieceBagTest {
             assertTrue(b);
         }
     }
+    
+    @Test
+    void testSameSeedSameSequence() {
+        PieceBag a = new PieceBag(new SplittableRandom(42));
+        PieceBag b = new PieceBag(new SplittableRandom(42));
+        
+        for (int i = 0; i < 21; i++) {
+            assertEquals(a.next().getType(), b.next().getType());
+        }
+    }
 }
 
@@ -44,5 +44,43 @@ public class PieceTest {
         copy.rotate();
         assertNotEquals(original.getRotation(), copy.getRotation());
     }
+    
+    @Test
+    void testRotationUsesPrecomputedTable() {
+        Piece piece = new Piece(PieceType.T);
+        int[][] original = piece.getShape();
+        assertArrayEquals(new int[] {0b010, 0b111, 0}, piece.getRowMasks());
+        
+        piece.rotate();
+        assertArrayEquals(new int[] {0b010, 0b110, 0b010}, piece.getRowMasks());
+        assertTrue(piece.isOccupied(2, 1));
+        assertFalse(piece.isOccupied(2, 0));
+        
+        piece.rotateCounterClockwise();
+        assertArrayEquals(original, piece.getShape());
+    }
+    
+    @Test
+    void testShapeCopyDoesNotChangeTable() {
+        Piece piece = new Piece(PieceType.T);
+        int[][] shape = piece.getShape();
+        shape[0][0] = 1;
+        shape[1] = new int[3];
+        
+        assertEquals(0, piece.getShape()[0][0]);
+        assertArrayEquals(new int[] {1, 1, 1}, piece.getShape()[1]);
+        assertFalse(RotationTable.isOccupied(PieceType.T, 0, 0, 0));
+        assertTrue(new Board().canPlacePiece(piece, 0, 0));
+    }
+    
+    @Test
+    void testDistinctRotations() {
+        assertEquals(1, RotationTable.distinctRotationCount(PieceType.O));
+        assertEquals(2, RotationTable.distinctRotationCount(PieceType.I));
+        assertEquals(2, RotationTable.distinctRotationCount(PieceType.S));
+        assertEquals(2, RotationTable.distinctRotationCount(PieceType.Z));
+        assertEquals(4, RotationTable.distinctRotationCount(PieceType.T));
+        assertEquals(1, RotationTable.distinctRotation(PieceType.I, 1));
+    }
 }
 
@@ -0,0 +1,152 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.engine.GameEngine;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para BinaryCodec
+ */
+class BinaryCodecTest {
+
+    private GameEngine playedEngine() {
+        GameEngine engine = new GameEngine(42L);
+        for (int i = 0; i < 5; i++) {
+            engine.hardDrop();
+        }
+        return engine;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    @Test
+    void testStateUpdateRoundTrip() throws Exception {
+        GameEngine engine = playedEngine();
+        NetMessage original = NetProtocol.createStateUpdate("p1", engine);
+        byte[] frame = BinaryCodec.encode(original);
+
+        // O payload lido das máscaras é igual ao snapshot do tabuleiro
+        assertArrayEquals(engine.getBoard().getGrid(), (int[][]) map(map(original.getData()).get("board")).get("grid"));
+
+        // Muito menor que o JSON equivalente
+        assertTrue(frame.length * 5 < NetProtocol.serialize(original).length());
+        assertEquals(BinaryCodec.MAGIC, frame[0] & 0xFF);
+
+        NetMessage decoded = new FrameReader(new ByteArrayInputStream(frame)).read();
+
+        assertEquals(NetProtocol.TYPE_STATE_UPDATE, decoded.getType());
+        assertEquals("p1", decoded.getPlayerId());
+        Map<String, Object> expected = map(original.getData());
+        Map<String, Object> actual = map(decoded.getData());
+        assertEquals(expected.get("score"), actual.get("score"));
+        assertEquals(expected.get("lines"), actual.get("lines"));
+        assertArrayEquals((int[][]) map(expected.get("board")).get("grid"),
+                          (int[][]) map(actual.get("board")).get("grid"));
+        assertEquals(map(expected.get("board")).get("holes"), map(actual.get("board")).get("holes"));
+        assertEquals(expected.get("currentPiece"), actual.get("currentPiece"));
+    }
+
+    @Test
+    void testEncodesMessageParsedFromJson() {
+        NetMessage original = NetProtocol.createStateUpdate("p1", playedEngine());
+        NetMessage parsed = NetProtocol.deserialize(NetProtocol.serialize(original));
+
+        // O grid vindo do JSON é uma lista de listas: o frame deve ser o mesmo
+        assertArrayEquals(BinaryCodec.encode(original), BinaryCodec.encode(parsed));
+    }
+
+    @Test
+    void testDirectEncodingMatchesMapEncoding() {
+        GameEngine engine = playedEngine();
+        assertArrayEquals(BinaryCodec.encode(NetProtocol.createStateUpdate("p1", engine)),
+                          BinaryCodec.encodeState("p1", engine.getBoard(), engine));
+
+        // Keyframe, deltas com e sem linhas alteradas e o keyframe periódico seguinte
+        StateDeltaEncoder viaMap = new StateDeltaEncoder(4);
+        StateDeltaEncoder direct = new StateDeltaEncoder(4);
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(BinaryCodec.encode(viaMap.next("p1", engine)), direct.nextFrame("p1", engine));
+            if (i % 2 == 0) {
+                engine.hardDrop();
+            } else {
+                engine.movePiece(-1, 0);
+            }
+        }
+    }
+
+    @Test
+    void testFrameReaderMixesJsonAndBinary() throws Exception {
+        NetMessage state = NetProtocol.createStateUpdate("p1", playedEngine());
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(NetProtocol.encodeFrame(NetProtocol.createConnectAck("p1", NetProtocol.CODEC_BINARY),
+                                             NetProtocol.CODEC_JSON));
+        stream.write(NetProtocol.encodeFrame(state, NetProtocol.CODEC_BINARY));
+        stream.write(new byte[] {(byte) BinaryCodec.MAGIC, 99, 2, 0, 0}); // versão futura: ignorado
+        stream.write(NetProtocol.encodeFrame(new NetMessage("PONG", "p1", null), NetProtocol.CODEC_BINARY));
+
+        FrameReader reader = new FrameReader(new ByteArrayInputStream(stream.toByteArray()));
+        assertEquals(NetProtocol.TYPE_CONNECT_ACK, reader.read().getType());
+        assertEquals(NetProtocol.TYPE_STATE_UPDATE, reader.read().getType());
+        assertEquals("PONG", reader.read().getType());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void testRejectsMalformedPayloads() {
+        // Grid com dimensões absurdas: não pode virar alocação
+        byte[] hugeGrid = {1, 0, 0, 0, 0, 0, 0, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 10};
+        assertThrows(ProtocolException.class, () -> BinaryCodec.decode(hugeGrid));
+
+        // Tipo de peça 0 (rotação 1) e índice de linha fora do tabuleiro
+        byte[] badPiece = {1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0x08, 0, 0};
+        assertThrows(ProtocolException.class, () -> BinaryCodec.decode(badPiece));
+        byte[] badRow = {2, 0, 2, 0, 0, 0, 0, 0, 0, 1, 10, 40, 0};
+        assertThrows(ProtocolException.class, () -> BinaryCodec.decode(badRow));
+
+        // Prefixo de tamanho negativo e 5º byte de varint com bits demais
+        byte[] negative = {(byte) BinaryCodec.MAGIC, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        assertThrows(ProtocolException.class, () -> new FrameReader(new ByteArrayInputStream(negative)).read());
+        byte[] overlong = {(byte) BinaryCodec.MAGIC, 1, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x70};
+        assertThrows(ProtocolException.class, () -> new FrameReader(new ByteArrayInputStream(overlong)).read());
+
+        // JSON inválido também é erro de protocolo
+        byte[] notJson = "not json\n".getBytes();
+        assertThrows(ProtocolException.class, () -> new FrameReader(new ByteArrayInputStream(notJson)).read());
+    }
+
+    @Test
+    void testRejectsMessagesWithWrongShape() {
+        String[] invalid = {
+            "{\"playerId\":\"p1\",\"data\":null}",
+            "{\"type\":\"CONNECT\",\"playerId\":\"p1\",\"data\":\"sala\"}",
+            "{\"type\":\"RESYNC\",\"playerId\":\"p1\",\"data\":{\"target\":7}}",
+            "{\"type\":\"STATE_UPDATE\",\"playerId\":\"p1\",\"data\":{\"board\":{\"grid\":[[\"x\"]]}}}",
+            "{\"type\":\"STATE_DELTA\",\"playerId\":\"p1\",\"data\":{\"seq\":1,\"base\":0,"
+                + "\"board\":{\"changedRows\":[3],\"rows\":[]}}}",
+            "{\"type\":\"STATE_DELTA\",\"data\":{\"seq\":1,\"base\":0,"
+                + "\"board\":{\"changedRows\":[],\"rows\":[]}}}"
+        };
+        for (String json : invalid) {
+            assertThrows(ProtocolException.class, () -> NetProtocol.deserializeFrame(json), json);
+        }
+
+        // Tipos desconhecidos e PING sem dados continuam aceitos
+        assertDoesNotThrow(() -> NetProtocol.deserializeFrame("{\"type\":\"HELLO\",\"data\":5}"));
+        assertDoesNotThrow(() -> NetProtocol.deserializeFrame("{\"type\":\"PING\",\"playerId\":\"p1\"}"));
+        assertDoesNotThrow(() -> NetProtocol.deserializeFrame(
+            NetProtocol.serialize(NetProtocol.createStateUpdate("p1", playedEngine(), 0))));
+    }
+
+    @Test
+    void testNegotiateCodec() {
+        NetMessage connect = NetProtocol.createConnectMessage("p1", "Player");
+        assertEquals(NetProtocol.CODEC_BINARY, NetProtocol.negotiateCodec(connect.getData()));
+        assertEquals(NetProtocol.CODEC_JSON, NetProtocol.negotiateCodec(Map.of("name", "Old")));
+    }
+}
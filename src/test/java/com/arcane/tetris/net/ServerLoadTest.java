@@ -0,0 +1,94 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.util.Logger;
+import org.junit.jupiter.api.Test;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga dos modos do Server: conexões simultâneas, threads de plataforma e heap por conexão
+ * Número de conexões via -Dloadtest.connections (padrão pequeno para não pesar no mvn test)
+ */
+class ServerLoadTest {
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 200);
+    private static final byte[] PING = NetProtocol.encodeFrame(new NetMessage(NetProtocol.TYPE_PING, "load", null),
+                                                               NetProtocol.CODEC_JSON);
+    
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    private static int platformThreads() {
+        return ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+    
+    /**
+     * Abre as conexões (sockets crus, sem threads do lado do cliente), confirma que todas
+     * foram atendidas com um PING e mede o custo enquanto ficam abertas
+     */
+    private void measure(Server.Mode mode) throws Exception {
+        Server server = ServerTest.startServer(mode);
+        List<Socket> sockets = new ArrayList<>(CONNECTIONS);
+        try {
+            long heapBefore = usedHeap();
+            int threadsBefore = platformThreads();
+            
+            for (int i = 0; i < CONNECTIONS; i++) {
+                Socket socket = new Socket("localhost", server.getLocalPort());
+                socket.setSoTimeout(5000);
+                sockets.add(socket);
+                socket.getOutputStream().write(PING);
+            }
+            for (Socket socket : sockets) {
+                assertEquals("PONG", readType(socket.getInputStream()));
+            }
+            assertEquals(CONNECTIONS, server.getConnectionCount());
+            
+            long heapPerConnection = (usedHeap() - heapBefore) / CONNECTIONS;
+            int threads = platformThreads() - threadsBefore;
+            Logger.info(String.format("Carga %-15s conexões=%d threads de plataforma=+%d heap/conexão=%d bytes",
+                                      mode, CONNECTIONS, threads, heapPerConnection));
+            if (mode != Server.Mode.BLOCKING) {
+                assertTrue(threads < CONNECTIONS / 2);
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            server.stop();
+        }
+    }
+    
+    private static String readType(InputStream in) throws Exception {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            line.append((char) b);
+        }
+        return NetProtocol.deserialize(line.toString()).getType();
+    }
+    
+    @Test
+    void testBlockingMode() throws Exception {
+        measure(Server.Mode.BLOCKING);
+    }
+    
+    @Test
+    void testVirtualThreadMode() throws Exception {
+        measure(Server.Mode.VIRTUAL_THREADS);
+    }
+    
+    @Test
+    void testNioMode() throws Exception {
+        measure(Server.Mode.NIO);
+    }
+}
@@ -0,0 +1,111 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.engine.GameEngine;
+import org.junit.jupiter.api.Test;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de estresse do roteamento do Server: conexões entrando e saindo da sala
+ * enquanto outro jogador repassa estado
+ */
+class ServerStressTest {
+    private static final int BROADCASTS = 2000;
+    private static final int CHURN_THREADS = 8;
+    private static final int CHURN_CYCLES = 50;
+    
+    /**
+     * Conexão em memória que conta os frames binários (estado) recebidos
+     */
+    private static class CountingConnection extends Connection {
+        private final Server server;
+        final AtomicInteger states = new AtomicInteger();
+        volatile boolean connected = true;
+        
+        CountingConnection(Server server) {
+            super(Server.DEFAULT_MAX_QUEUED_FRAMES, Server.SlowConsumerPolicy.DISCONNECT);
+            this.server = server;
+        }
+        
+        @Override
+        void send(OutboundFrame frame) {
+            if ((frame.buffer().get(0) & 0xFF) == BinaryCodec.MAGIC) {
+                states.incrementAndGet();
+            }
+        }
+        
+        @Override
+        boolean isConnected() {
+            return connected;
+        }
+        
+        @Override
+        void disconnect() {
+            connected = false;
+            server.onDisconnect(this);
+        }
+    }
+    
+    private static CountingConnection connect(Server server, String playerId) {
+        CountingConnection connection = new CountingConnection(server);
+        server.onConnect(connection);
+        server.handleMessage(connection, NetProtocol.createConnectMessage(playerId, "Player", "arena"));
+        return connection;
+    }
+    
+    @Test
+    void testRoutingUnderConnectionChurn() throws Exception {
+        Server server = new Server(0);
+        CountingConnection sender = connect(server, "sender");
+        CountingConnection[] receivers = new CountingConnection[3];
+        for (int i = 0; i < receivers.length; i++) {
+            receivers[i] = connect(server, "stable" + i);
+        }
+        
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[CHURN_THREADS + 1];
+        NetMessage state = NetProtocol.createStateUpdate("sender", new GameEngine(9L), 0);
+        threads[0] = new Thread(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < BROADCASTS; i++) {
+                    server.handleMessage(sender, state);
+                }
+            } catch (Throwable t) {
+                errors.add(t);
+            }
+        });
+        for (int t = 1; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < CHURN_CYCLES; i++) {
+                        connect(server, "churn" + id + "-" + i).disconnect();
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(30_000);
+            assertFalse(thread.isAlive());
+        }
+        
+        assertTrue(errors.isEmpty(), () -> "Erro durante o estresse: " + errors.peek());
+        for (CountingConnection receiver : receivers) {
+            assertEquals(BROADCASTS, receiver.states.get());
+        }
+        assertEquals(1 + receivers.length, server.getConnectionCount());
+        assertEquals(1, server.getRoomCount());
+    }
+}
@@ -0,0 +1,443 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.engine.GameEngine;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para Server e FrameDecoder
+ */
+class ServerTest {
+    
+    static Server startServer(Server.Mode mode) throws InterruptedException {
+        return startServer(mode, 2);
+    }
+    
+    static Server startServer(Server.Mode mode, int eventLoops) throws InterruptedException {
+        Server server = new Server(0, mode, eventLoops);
+        Thread thread = new Thread(server::start);
+        thread.setDaemon(true);
+        thread.start();
+        for (int i = 0; i < 200 && server.getLocalPort() <= 0; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(server.getLocalPort() > 0);
+        return server;
+    }
+    
+    private void assertRelaysState(Server.Mode mode) throws Exception {
+        Server server = startServer(mode);
+        Client sender = new Client("localhost", server.getLocalPort(), "p1");
+        Client receiver = new Client("localhost", server.getLocalPort(), "p2");
+        BlockingQueue<NetMessage> received = new LinkedBlockingQueue<>();
+        receiver.setMessageHandler(received::add);
+        try {
+            assertTrue(receiver.connect());
+            // O eco do próprio CONNECT indica que o receptor já entrou na sala
+            NetMessage message;
+            do {
+                message = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(message);
+            } while (!NetProtocol.TYPE_CONNECT.equals(message.getType()));
+            assertTrue(sender.connect());
+            assertTrue(sender.awaitConnectAck(5000));
+            assertEquals(NetProtocol.CODEC_BINARY, sender.getCodec());
+            
+            GameEngine engine = new GameEngine(3L);
+            for (int i = 0; i < 3; i++) {
+                engine.hardDrop();
+                sender.sendState(engine);
+            }
+            
+            // Deltas chegam ao handler como estado completo
+            int states = 0;
+            while (states < 3 && (message = received.poll(5, TimeUnit.SECONDS)) != null) {
+                if (message.getPlayerId().equals("p1") && NetProtocol.TYPE_STATE_UPDATE.equals(message.getType())) {
+                    states++;
+                }
+            }
+            assertEquals(3, states);
+        } finally {
+            sender.disconnect();
+            receiver.disconnect();
+            server.stop();
+        }
+    }
+    
+    @Test
+    void testBlockingServerRelaysState() throws Exception {
+        assertRelaysState(Server.Mode.BLOCKING);
+    }
+    
+    @Test
+    void testVirtualThreadServerRelaysState() throws Exception {
+        assertRelaysState(Server.Mode.VIRTUAL_THREADS);
+    }
+    
+    @Test
+    void testNioServerRelaysState() throws Exception {
+        assertRelaysState(Server.Mode.NIO);
+    }
+    
+    @Test
+    void testMalformedFrameClosesOnlyThatConnection() throws Exception {
+        // Um único loop: se ele morresse, nenhuma conexão nova seria atendida
+        Server server = startServer(Server.Mode.NIO, 1);
+        Client client = new Client("localhost", server.getLocalPort(), "p1");
+        try {
+            byte[][] malformed = {
+                "not json\n".getBytes(StandardCharsets.UTF_8),
+                {(byte) BinaryCodec.MAGIC, 1, 3, 1, 0, (byte) 0x80}, // payload truncado
+                {(byte) BinaryCodec.MAGIC, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F}
+            };
+            for (byte[] frame : malformed) {
+                try (Socket bad = new Socket("localhost", server.getLocalPort())) {
+                    bad.setSoTimeout(5000);
+                    bad.getOutputStream().write(frame);
+                    bad.getOutputStream().flush();
+                    while (bad.getInputStream().read() >= 0) {
+                        // Aguarda o servidor fechar a conexão
+                    }
+                }
+            }
+            
+            assertTrue(client.connect());
+            for (int i = 0; i < 500 && !NetProtocol.CODEC_BINARY.equals(client.getCodec()); i++) {
+                Thread.sleep(10); // Aguarda o CONNECT_ACK
+            }
+            assertEquals(NetProtocol.CODEC_BINARY, client.getCodec());
+        } finally {
+            client.disconnect();
+            server.stop();
+        }
+    }
+    
+    @Test
+    void testStalledMemberDoesNotBlockRelayInBlockingMode() throws Exception {
+        Server server = startServer(Server.Mode.BLOCKING);
+        byte[] connect = NetProtocol.encodeFrame(NetProtocol.createConnectMessage("slow", "Player", "r"),
+                                                 NetProtocol.CODEC_JSON);
+        try (Socket stalled = new Socket("localhost", server.getLocalPort());
+             Socket receiver = new Socket("localhost", server.getLocalPort());
+             Socket sender = new Socket("localhost", server.getLocalPort())) {
+            // Entra na sala e nunca lê: o socket dele enche e as escritas para ele travam
+            stalled.getOutputStream().write(connect);
+            receiver.getOutputStream().write(NetProtocol.encodeFrame(
+                NetProtocol.createConnectMessage("p2", "Player", "r"), NetProtocol.CODEC_JSON));
+            FrameReader in = new FrameReader(receiver.getInputStream());
+            receiver.setSoTimeout(10000);
+            assertEquals(NetProtocol.TYPE_CONNECT_ACK, in.read().getType());
+            
+            // Muitos deltas (descartáveis) num único write: vários MB para o membro parado
+            int[] changed = new int[20];
+            int[][] rows = new int[20][10];
+            for (int y = 0; y < rows.length; y++) {
+                changed[y] = y;
+                Arrays.fill(rows[y], 1 + y % 7);
+            }
+            byte[] delta = NetProtocol.encodeFrame(
+                NetProtocol.createStateDelta("p1", new GameEngine(1L), 1, 0, changed, rows),
+                NetProtocol.CODEC_BINARY);
+            int count = 40_000;
+            ByteArrayOutputStream burst = new ByteArrayOutputStream();
+            burst.write(NetProtocol.encodeFrame(NetProtocol.createConnectMessage("p1", "Player", "r"),
+                                                NetProtocol.CODEC_JSON));
+            for (int i = 0; i < count; i++) {
+                burst.write(delta);
+            }
+            burst.write(NetProtocol.encodeFrame(NetProtocol.createSpellCast("p1", "Bomb", "p2", 0),
+                                                NetProtocol.CODEC_JSON));
+            Thread writer = new Thread(() -> {
+                try {
+                    sender.getOutputStream().write(burst.toByteArray());
+                } catch (Exception ignored) {
+                    // O teste falha pela contagem
+                }
+            });
+            writer.setDaemon(true);
+            writer.start();
+            
+            // O repasse ao receptor continua mesmo com o outro membro parado; deltas podem ser
+            // descartados para o receptor também, mas o feitiço do fim do lote chega
+            NetMessage message;
+            do {
+                message = in.read();
+            } while (!NetProtocol.TYPE_SPELL_CAST.equals(message.getType()));
+            assertEquals("p1", message.getPlayerId());
+        } finally {
+            server.stop();
+        }
+    }
+    
+    @Test
+    void testRoomsIsolateTraffic() throws Exception {
+        Server server = startServer(Server.Mode.NIO);
+        Client a1 = new Client("localhost", server.getLocalPort(), "a1");
+        Client a2 = new Client("localhost", server.getLocalPort(), "a2");
+        Client b1 = new Client("localhost", server.getLocalPort(), "b1");
+        a1.setRoom("a");
+        a2.setRoom("a");
+        b1.setRoom("b");
+        BlockingQueue<NetMessage> receivedA = new LinkedBlockingQueue<>();
+        BlockingQueue<NetMessage> receivedB = new LinkedBlockingQueue<>();
+        a2.setMessageHandler(receivedA::add);
+        b1.setMessageHandler(receivedB::add);
+        try {
+            assertTrue(a2.connect());
+            assertTrue(b1.connect());
+            assertTrue(a1.connect());
+            for (int i = 0; i < 500 && !NetProtocol.CODEC_BINARY.equals(a1.getCodec()); i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, server.getRoomCount());
+            
+            GameEngine engine = new GameEngine(5L);
+            engine.hardDrop();
+            a1.sendState(engine);
+            
+            NetMessage message;
+            boolean relayed = false;
+            while (!relayed && (message = receivedA.poll(5, TimeUnit.SECONDS)) != null) {
+                relayed = message.getPlayerId().equals("a1")
+                    && NetProtocol.TYPE_STATE_UPDATE.equals(message.getType());
+            }
+            assertTrue(relayed);
+            
+            // Nada da sala "a" chega à sala "b"
+            while ((message = receivedB.poll(200, TimeUnit.MILLISECONDS)) != null) {
+                assertFalse(message.getPlayerId().startsWith("a"), message.getType());
+            }
+        } finally {
+            a1.disconnect();
+            a2.disconnect();
+            b1.disconnect();
+            server.stop();
+        }
+    }
+    
+    @Test
+    void testMessagesAfterJoinKeepOrderAcrossLoopMigration() throws Exception {
+        // CONNECT e PINGs no mesmo write: os PINGs decodificados junto com o CONNECT migram
+        // com a conexão, e os do segundo write só podem ser tratados depois deles
+        Server server = startServer(Server.Mode.NIO, 4);
+        try {
+            for (int r = 0; r < 8; r++) {
+                try (Socket socket = new Socket("localhost", server.getLocalPort())) {
+                    socket.setSoTimeout(5000);
+                    ByteArrayOutputStream first = new ByteArrayOutputStream();
+                    first.write(NetProtocol.encodeFrame(
+                        NetProtocol.createConnectMessage("p" + r, "Player", "room" + r), NetProtocol.CODEC_JSON));
+                    ByteArrayOutputStream second = new ByteArrayOutputStream();
+                    for (int i = 0; i < 100; i++) {
+                        NetMessage ping = new NetMessage(NetProtocol.TYPE_PING, "p" + r, Map.of("t", i));
+                        (i < 50 ? first : second).write(NetProtocol.encodeFrame(ping, NetProtocol.CODEC_JSON));
+                    }
+                    socket.getOutputStream().write(first.toByteArray());
+                    socket.getOutputStream().write(second.toByteArray());
+                    socket.getOutputStream().flush();
+                    
+                    FrameReader reader = new FrameReader(socket.getInputStream());
+                    assertEquals(NetProtocol.TYPE_CONNECT_ACK, reader.read().getType());
+                    for (int i = 0; i < 100; i++) {
+                        NetMessage pong = reader.read();
+                        while (!NetProtocol.TYPE_PONG.equals(pong.getType())) {
+                            pong = reader.read(); // CONNECT repassado à própria sala
+                        }
+                        assertEquals(i, ((Number) ((Map<?, ?>) pong.getData()).get("t")).intValue());
+                    }
+                }
+            }
+        } finally {
+            server.stop();
+        }
+    }
+    
+    @Test
+    void testBatchedClientSendsOneWritePerTick() throws Exception {
+        Server server = startServer(Server.Mode.NIO);
+        Client sender = new Client("localhost", server.getLocalPort(), "p1");
+        Client receiver = new Client("localhost", server.getLocalPort(), "p2");
+        sender.setBatching(60_000, Client.DEFAULT_MAX_BATCH_BYTES); // só o flush() explícito envia
+        sender.setPingInterval(0);
+        BlockingQueue<NetMessage> received = new LinkedBlockingQueue<>();
+        receiver.setMessageHandler(received::add);
+        try {
+            assertTrue(receiver.connect());
+            assertTrue(sender.connect());
+            for (int i = 0; i < 500 && !NetProtocol.CODEC_BINARY.equals(sender.getCodec()); i++) {
+                Thread.sleep(10);
+            }
+            long writes = sender.getWriteCount();
+            
+            GameEngine engine = new GameEngine(3L);
+            for (int i = 0; i < 5; i++) {
+                engine.hardDrop();
+                sender.sendState(engine);
+            }
+            sender.flush();
+            assertEquals(writes + 1, sender.getWriteCount());
+            assertEquals(4, sender.getCoalescedStates());
+            
+            NetMessage message;
+            while ((message = received.poll(5, TimeUnit.SECONDS)) != null
+                   && !NetProtocol.TYPE_STATE_UPDATE.equals(message.getType())) {
+                // Ignora o CONNECT do sender
+            }
+            assertNotNull(message);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> data = (Map<String, Object>) message.getData();
+            assertEquals(engine.getScore(), ((Number) data.get("score")).intValue());
+        } finally {
+            sender.disconnect();
+            receiver.disconnect();
+            server.stop();
+        }
+    }
+    
+    @Test
+    void testClientMeasuresRtt() throws Exception {
+        Server server = startServer(Server.Mode.NIO);
+        Client client = new Client("localhost", server.getLocalPort(), "rtt1");
+        client.setPingInterval(10);
+        client.setJmxEnabled(true);
+        Client plain = new Client("localhost", server.getLocalPort(), "rtt2");
+        try {
+            assertTrue(client.connect());
+            assertTrue(plain.connect());
+            for (int i = 0; i < 500 && client.getMetrics().getPongsReceived() < 3; i++) {
+                Thread.sleep(10);
+            }
+            assertTrue(client.getMetrics().getPongsReceived() >= 3);
+            assertTrue(client.getMetrics().getRttHistogram().getMax() > 0);
+            assertTrue(server.getMetrics().getMessagesHandled() >= 4); // CONNECT e PINGs
+            
+            MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+            assertTrue(mbeans.isRegistered(new ObjectName("com.arcane.tetris:type=Client,player=\"rtt1\"")));
+            assertTrue(mbeans.isRegistered(new ObjectName("com.arcane.tetris:type=Server,port=" + server.getLocalPort())));
+            
+            // Sem opt-in: nenhum PING nem MBean
+            assertEquals(0, plain.getMetrics().getPingsSent());
+            assertFalse(mbeans.isRegistered(new ObjectName("com.arcane.tetris:type=Client,player=\"rtt2\"")));
+        } finally {
+            plain.disconnect();
+            client.disconnect();
+            server.stop();
+        }
+    }
+    
+    /**
+     * Conexão que nunca escreve: a fila de saída só cresce
+     */
+    private static class StalledConnection extends Connection {
+        boolean connected = true;
+        
+        StalledConnection(Server.SlowConsumerPolicy policy) {
+            super(2, policy);
+        }
+        
+        @Override
+        void send(OutboundFrame frame) {
+            admit(frame);
+        }
+        
+        @Override
+        boolean isConnected() {
+            return connected;
+        }
+        
+        @Override
+        void disconnect() {
+            connected = false;
+        }
+    }
+    
+    @Test
+    void testSlowConsumerPolicy() {
+        GameEngine engine = new GameEngine(7L);
+        OutboundFrame keyframe = OutboundFrame.of(NetProtocol.createStateUpdate("p1", engine, 0),
+                                                  NetProtocol.CODEC_BINARY);
+        OutboundFrame delta = OutboundFrame.of(
+            NetProtocol.createStateDelta("p1", engine, 1, 0, new int[0], new int[0][]), NetProtocol.CODEC_BINARY);
+        assertTrue(delta.isDroppable());
+        assertFalse(keyframe.isDroppable());
+        assertEquals(0, delta.buffer().position());
+        assertEquals(delta.size(), delta.buffer().remaining());
+        
+        // Fila cheia: deltas descartados, keyframes até o dobro do limite, depois desconecta
+        StalledConnection slow = new StalledConnection(Server.SlowConsumerPolicy.DROP_DELTAS);
+        assertTrue(slow.admit(delta));
+        assertTrue(slow.admit(delta));
+        assertFalse(slow.admit(delta));
+        assertTrue(slow.isConnected());
+        assertTrue(slow.admit(keyframe));
+        assertTrue(slow.admit(keyframe));
+        assertEquals(4, slow.getQueuedFrames());
+        assertFalse(slow.admit(keyframe));
+        assertFalse(slow.isConnected());
+        assertEquals(2, slow.getDroppedFrames());
+        
+        StalledConnection strict = new StalledConnection(Server.SlowConsumerPolicy.DISCONNECT);
+        strict.admit(keyframe);
+        strict.sent(1);
+        assertTrue(strict.admit(keyframe));
+        assertTrue(strict.admit(keyframe));
+        assertFalse(strict.admit(keyframe));
+        assertFalse(strict.isConnected());
+    }
+    
+    @Test
+    void testSharedDirectCopyReturnsToPoolAfterLastRelease() {
+        BufferPool pool = new BufferPool(4096, 4);
+        OutboundFrame frame = OutboundFrame.of(NetProtocol.createStateUpdate("p1", new GameEngine(9L), 0),
+                                               NetProtocol.CODEC_BINARY);
+        ByteBuffer first = frame.retain(pool);
+        ByteBuffer second = frame.retain(pool);
+        assertTrue(first.isDirect());
+        assertEquals(frame.buffer(), first);
+        first.position(first.limit()); // Uma conexão escreveu tudo; a outra mantém a posição
+        assertEquals(frame.size(), second.remaining());
+        
+        frame.release(pool);
+        assertEquals(0, pool.getPooledCount());
+        frame.release(pool);
+        assertEquals(1, pool.getPooledCount());
+        
+        // Reenvio (como o PONG em cache) pega uma nova cópia do pool
+        assertEquals(frame.buffer(), frame.retain(pool));
+        assertEquals(0, pool.getPooledCount());
+    }
+    
+    @Test
+    void testFrameDecoderHandlesSplitFrames() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(NetProtocol.encodeFrame(new NetMessage("PING", "p1", null), NetProtocol.CODEC_JSON));
+        stream.write(NetProtocol.encodeFrame(NetProtocol.createStateUpdate("p1", new GameEngine(1L)),
+                                             NetProtocol.CODEC_BINARY));
+        byte[] bytes = stream.toByteArray();
+        
+        // Entrega um byte por vez, como leituras parciais do socket
+        FrameDecoder decoder = new FrameDecoder();
+        List<NetMessage> messages = new ArrayList<>();
+        for (byte b : bytes) {
+            decoder.decode(ByteBuffer.wrap(new byte[] {b}), messages);
+        }
+        assertEquals(2, messages.size());
+        assertEquals("PING", messages.get(0).getType());
+        assertEquals(NetProtocol.TYPE_STATE_UPDATE, messages.get(1).getType());
+        assertEquals(0, decoder.pendingBytes());
+    }
+}
@@ -0,0 +1,151 @@
+package com.arcane.tetris.net;
+
+import com.arcane.tetris.engine.GameEngine;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para StateDeltaEncoder e StateDeltaDecoder
+ */
+class StateDeltaTest {
+
+    @SuppressWarnings("unchecked")
+    private static int[][] grid(NetMessage message) {
+        Map<String, Object> board = (Map<String, Object>) ((Map<String, Object>) message.getData()).get("board");
+        return (int[][]) board.get("grid");
+    }
+
+    private static NetMessage viaBinary(NetMessage message) throws Exception {
+        byte[] frame = NetProtocol.encodeFrame(message, NetProtocol.CODEC_BINARY);
+        return new FrameReader(new ByteArrayInputStream(frame)).read();
+    }
+
+    @Test
+    void testDeltasReconstructBoard() throws Exception {
+        GameEngine engine = new GameEngine(7L);
+        StateDeltaEncoder encoder = new StateDeltaEncoder(10);
+        StateDeltaDecoder decoder = new StateDeltaDecoder();
+
+        NetMessage first = encoder.next("p1", engine);
+        assertEquals(NetProtocol.TYPE_STATE_UPDATE, first.getType());
+        decoder.apply(viaBinary(first));
+
+        for (int i = 0; i < 6; i++) {
+            engine.hardDrop();
+            NetMessage delta = encoder.next("p1", engine);
+            assertEquals(NetProtocol.TYPE_STATE_DELTA, delta.getType());
+
+            NetMessage full = decoder.apply(viaBinary(delta));
+            assertEquals(NetProtocol.TYPE_STATE_UPDATE, full.getType());
+            assertArrayEquals(engine.getBoard().getGrid(), grid(full));
+        }
+
+        // Só a peça se moveu: delta sem linhas
+        engine.movePiece(1, 0);
+        NetMessage idle = encoder.next("p1", engine);
+        assertTrue(BinaryCodec.encode(idle).length < 32);
+        assertNotNull(decoder.apply(idle));
+    }
+
+    @Test
+    void testBatcherCoalescesStates() throws Exception {
+        GameEngine engine = new GameEngine(7L);
+        StateDeltaEncoder encoder = new StateDeltaEncoder(100);
+        StateDeltaDecoder decoder = new StateDeltaDecoder();
+        OutboundBatcher batcher = new OutboundBatcher();
+
+        batcher.add(encoder.next("p1", engine), NetProtocol.CODEC_BINARY);
+        decoder.apply(new FrameReader(new ByteArrayInputStream(batcher.drain())).read());
+
+        // Três deltas e um feitiço no mesmo lote: um delta só, com a base do primeiro
+        for (int i = 0; i < 3; i++) {
+            engine.hardDrop();
+            batcher.add(encoder.next("p1", engine), NetProtocol.CODEC_BINARY);
+        }
+        batcher.add(NetProtocol.createSpellCast("p1", "Bomb", "p2", 40), NetProtocol.CODEC_BINARY);
+        assertEquals(2, batcher.getCoalescedCount());
+        FrameReader reader = new FrameReader(new ByteArrayInputStream(batcher.drain()));
+        NetMessage merged = reader.read();
+        assertEquals(NetProtocol.TYPE_STATE_DELTA, merged.getType());
+        assertEquals(NetProtocol.TYPE_SPELL_CAST, reader.read().getType());
+        assertNull(reader.read());
+        assertArrayEquals(engine.getBoard().getGrid(), grid(decoder.apply(merged)));
+
+        // Estado, feitiço, estado: o estado unido sai depois do feitiço, como o segundo estado
+        engine.hardDrop();
+        batcher.add(encoder.next("p1", engine), NetProtocol.CODEC_BINARY);
+        batcher.add(NetProtocol.createSpellCast("p1", "Freeze", "p2", 30), NetProtocol.CODEC_BINARY);
+        engine.hardDrop();
+        batcher.add(encoder.next("p1", engine), NetProtocol.CODEC_BINARY);
+        reader = new FrameReader(new ByteArrayInputStream(batcher.drain()));
+        assertEquals(NetProtocol.TYPE_SPELL_CAST, reader.read().getType());
+        merged = reader.read();
+        assertEquals(NetProtocol.TYPE_STATE_DELTA, merged.getType());
+        assertNull(reader.read());
+        assertArrayEquals(engine.getBoard().getGrid(), grid(decoder.apply(merged)));
+
+        // Delta sobre keyframe pendente vira keyframe
+        encoder.requestKeyframe();
+        batcher.add(encoder.next("p1", engine), NetProtocol.CODEC_BINARY);
+        engine.hardDrop();
+        batcher.add(encoder.next("p1", engine), NetProtocol.CODEC_BINARY);
+        NetMessage keyframe = new FrameReader(new ByteArrayInputStream(batcher.drain())).read();
+        assertEquals(NetProtocol.TYPE_STATE_UPDATE, keyframe.getType());
+        assertArrayEquals(engine.getBoard().getGrid(), grid(decoder.apply(keyframe)));
+        engine.hardDrop();
+        assertArrayEquals(engine.getBoard().getGrid(), grid(decoder.apply(encoder.next("p1", engine))));
+        assertNull(batcher.drain());
+    }
+
+    @Test
+    void testGapRequiresKeyframe() {
+        GameEngine engine = new GameEngine(7L);
+        StateDeltaEncoder encoder = new StateDeltaEncoder(100);
+        StateDeltaDecoder decoder = new StateDeltaDecoder();
+
+        decoder.apply(encoder.next("p1", engine));
+        engine.hardDrop();
+        encoder.next("p1", engine); // perdido
+        engine.hardDrop();
+
+        assertNull(decoder.apply(encoder.next("p1", engine)));
+        assertTrue(decoder.markResyncRequested());
+        assertFalse(decoder.markResyncRequested());
+
+        // Após o RESYNC o próximo envio é um keyframe e o estado volta a ser válido
+        encoder.requestKeyframe();
+        NetMessage keyframe = encoder.next("p1", engine);
+        assertEquals(NetProtocol.TYPE_STATE_UPDATE, keyframe.getType());
+        assertNotNull(decoder.apply(keyframe));
+        engine.hardDrop();
+        NetMessage full = decoder.apply(encoder.next("p1", engine));
+        assertArrayEquals(engine.getBoard().getGrid(), grid(full));
+    }
+
+    @Test
+    void testRowIndexOutsideGridNeedsResync() {
+        StateDeltaDecoder decoder = new StateDeltaDecoder();
+        Map<String, Object> keyframe = Map.of("seq", 0, "board", Map.of("grid", new int[20][10]));
+        assertNotNull(decoder.apply(new NetMessage(NetProtocol.TYPE_STATE_UPDATE, "p1", keyframe)));
+
+        Map<String, Object> delta = Map.of("seq", 1, "base", 0,
+            "board", Map.of("changedRows", new int[] {25}, "rows", new int[1][10]));
+        assertNull(decoder.apply(new NetMessage(NetProtocol.TYPE_STATE_DELTA, "p1", delta)));
+        assertEquals(-1, decoder.getLastSeq());
+    }
+
+    @Test
+    void testPeriodicKeyframes() {
+        GameEngine engine = new GameEngine(7L);
+        StateDeltaEncoder encoder = new StateDeltaEncoder(3);
+        int keyframes = 0;
+        for (int i = 0; i < 9; i++) {
+            if (NetProtocol.TYPE_STATE_UPDATE.equals(encoder.next("p1", engine).getType())) {
+                keyframes++;
+            }
+        }
+        assertEquals(3, keyframes);
+    }
+}
@@ -0,0 +1,53 @@
+package com.arcane.tetris.sim;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para HeadlessSimulator
+ */
+public class HeadlessSimulatorTest {
+    
+    @Test
+    void testScriptedHardDropsEndInGameOver() {
+        // Larga todas as peças no centro: a pilha chega ao topo rapidamente
+        ScriptedInputSource script = new ScriptedInputSource();
+        for (long tick = 0; tick < 200; tick++) {
+            script.at(tick, InputAction.HARD_DROP);
+        }
+        
+        HeadlessSimulator simulator = new HeadlessSimulator(10_000);
+        GameResult result = simulator.runGame(1L, script, null);
+        
+        assertTrue(result.getTicks() < 200);
+        assertEquals(1, result.getPlayerCount());
+    }
+    
+    @Test
+    void testBatchRunsAiGamesInParallel() {
+        HeadlessSimulator simulator = new HeadlessSimulator(3_000);
+        List<GameResult> results = simulator.runBatch(4, 100L,
+            seed -> new AiInputSource(), seed -> new AiInputSource(), 2);
+        
+        assertEquals(4, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            GameResult result = results.get(i);
+            assertEquals(100L + i, result.getSeed());
+            assertEquals(2, result.getPlayerCount());
+            assertTrue(result.getTicks() > 0);
+            assertTrue(result.getLines(0) > 0);
+        }
+    }
+    
+    @Test
+    void testSameSeedReproducesGame() {
+        HeadlessSimulator simulator = new HeadlessSimulator(2_000);
+        GameResult first = simulator.runGame(7L, new AiInputSource(), null);
+        GameResult second = simulator.runGame(7L, new AiInputSource(), null);
+        
+        assertEquals(first.getTicks(), second.getTicks());
+        assertEquals(first.getScore(0), second.getScore(0));
+        assertEquals(first.getLines(0), second.getLines(0));
+    }
+}
@@ -0,0 +1,123 @@
+package com.arcane.tetris.sim;
+
+import com.arcane.tetris.engine.Player;
+import com.arcane.tetris.engine.PlayerSnapshot;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para SimulationThread e PlayerSnapshot
+ */
+class SimulationThreadTest {
+
+    @Test
+    void testPublishesBeforeStart() {
+        SimulationThread simulation = new SimulationThread(new Player("p1", "P1", 1L), null, 1.0 / 120, 8);
+        SimulationThread.Frame frame = simulation.latest();
+        assertNotNull(frame);
+        assertNotNull(frame.getPlayer1());
+        assertNull(frame.getPlayer2());
+        assertEquals(0, frame.getPlayer1().getScore());
+    }
+
+    @Test
+    void testCommandsRunOnSimulationThread() throws InterruptedException {
+        Player player = new Player("p1", "P1", 1L);
+        SimulationThread simulation = new SimulationThread(player, null, 1.0 / 120, 8);
+        long version = simulation.latest().getPlayer1().getBoardVersion();
+        simulation.start();
+        try {
+            simulation.submit(() -> player.getEngine().hardDrop());
+
+            long deadline = System.currentTimeMillis() + 2000;
+            PlayerSnapshot snapshot = simulation.latest().getPlayer1();
+            while (snapshot.getBoardVersion() == version && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+                snapshot = simulation.latest().getPlayer1();
+            }
+            assertNotEquals(version, snapshot.getBoardVersion());
+
+            // Os ticks seguem sem ninguém chamar update
+            while (simulation.latest().getTick() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(simulation.latest().getTick() > 0);
+        } finally {
+            simulation.stop();
+        }
+    }
+
+    @Test
+    void testSnapshotReusesGridWhileBoardUnchanged() {
+        Player player = new Player("p1", "P1", 1L);
+        PlayerSnapshot first = PlayerSnapshot.capture(player, null);
+        player.getEngine().movePiece(1, 0);
+        PlayerSnapshot moved = PlayerSnapshot.capture(player, first);
+        assertEquals(first.getBoardVersion(), moved.getBoardVersion());
+        assertEquals(first.getPieceX() + 1, moved.getPieceX());
+
+        player.getEngine().hardDrop();
+        PlayerSnapshot dropped = PlayerSnapshot.capture(player, moved);
+        assertNotEquals(moved.getBoardVersion(), dropped.getBoardVersion());
+        assertNotEquals(0, dropped.getRowMask(19));
+        assertEquals(0, moved.getRowMask(19)); // O retrato antigo não muda
+    }
+
+    @Test
+    void testStatsVersionTracksScoreAndMana() {
+        Player player = new Player("p1", "P1", 1L);
+        PlayerSnapshot first = PlayerSnapshot.capture(player, null);
+
+        // Mover a peça não muda nada que o HUD mostra
+        player.getEngine().movePiece(1, 0);
+        assertEquals(first.getStatsVersion(), PlayerSnapshot.capture(player, first).getStatsVersion());
+
+        player.getEngine().hardDrop();
+        PlayerSnapshot dropped = PlayerSnapshot.capture(player, first);
+        assertTrue(dropped.getScore() > 0);
+        assertNotEquals(first.getStatsVersion(), dropped.getStatsVersion());
+
+        player.addMana(30);
+        PlayerSnapshot charged = PlayerSnapshot.capture(player, dropped);
+        assertNotEquals(dropped.getStatsVersion(), charged.getStatsVersion());
+        assertEquals(30, charged.getMana());
+
+        // Mana sem mudança não invalida o HUD
+        player.addMana(0);
+        assertEquals(charged.getStatsVersion(), PlayerSnapshot.capture(player, charged).getStatsVersion());
+    }
+
+    @Test
+    void testSpellReadinessByIndex() {
+        Player player = new Player("p1", "P1", 1L);
+        int shield = Player.spellIndex("Shield");
+        PlayerSnapshot first = PlayerSnapshot.capture(player, null);
+        assertEquals(1.0, first.getSpellReadiness(shield));
+
+        player.addMana(100);
+        assertTrue(player.castSpell("Shield", null));
+        PlayerSnapshot cast = PlayerSnapshot.capture(player, first);
+        assertEquals(0.0, cast.getSpellReadiness(shield));
+        assertEquals(0.0, cast.getSpellReadiness("Shield"));
+        assertEquals(1.0, first.getSpellReadiness(shield)); // O retrato antigo não muda
+        assertEquals(1.0, cast.getSpellReadiness(Player.spellIndex("Bomb")));
+        assertEquals(1.0, cast.getSpellReadiness("Unknown"));
+    }
+
+    @Test
+    void testChangedRowsOnlyCoversTouchedRows() {
+        Player player = new Player("p1", "P1", 1L);
+        PlayerSnapshot first = PlayerSnapshot.capture(player, null);
+        assertEquals((1 << 20) - 1, first.changedRows(null));
+
+        player.getEngine().movePiece(1, 0);
+        PlayerSnapshot moved = PlayerSnapshot.capture(player, first);
+        assertEquals(0, moved.changedRows(first));
+
+        player.getEngine().hardDrop();
+        PlayerSnapshot dropped = PlayerSnapshot.capture(player, moved);
+        int changed = dropped.changedRows(moved);
+        assertNotEquals(0, changed & (1 << 19));
+        assertEquals(0, changed & ((1 << 17) - 1)); // Linhas de cima intactas
+    }
+}
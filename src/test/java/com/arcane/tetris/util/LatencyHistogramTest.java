@@ -0,0 +1,41 @@
+package com.arcane.tetris.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para LatencyHistogram
+ */
+class LatencyHistogramTest {
+    
+    @Test
+    void testBucketsCoverValues() {
+        for (long v : new long[] {0, 1, 15, 16, 17, 40, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= v);
+            assertTrue(index == 0 || LatencyHistogram.highestValueAt(index - 1) < v);
+        }
+    }
+    
+    @Test
+    void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v * 1_000);
+        }
+        assertEquals(10_000, histogram.getTotalCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_500, histogram.getMean(), 1);
+        
+        // Limite superior do bucket: no máximo 1/16 acima do valor exato
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 17 / 16, "p50=" + p50);
+        assertTrue(p99 >= 9_900_000 && p99 <= 10_000_000, "p99=" + p99);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+        
+        histogram.reset();
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}